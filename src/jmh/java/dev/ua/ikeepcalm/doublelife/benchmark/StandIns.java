@@ -0,0 +1,59 @@
+package dev.ua.ikeepcalm.doublelife.benchmark;
+
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Lightweight proxies standing in for Bukkit objects that normally need a running server.
+ * Only the methods the benchmarked code calls are answered; everything else returns null.
+ */
+public final class StandIns {
+
+    private StandIns() {
+    }
+
+    public static Player player() {
+        UUID playerId = UUID.randomUUID();
+        Location location = new Location(null, 128.5, 64, -42.5, 90f, 0f);
+        PlayerInventory inventory = proxy(PlayerInventory.class, method -> switch (method) {
+            case "getStorageContents" -> new ItemStack[36];
+            case "getArmorContents" -> new ItemStack[4];
+            default -> null;
+        });
+
+        return proxy(Player.class, method -> switch (method) {
+            case "getUniqueId" -> playerId;
+            case "getName" -> "Notch";
+            case "getLevel" -> 30;
+            case "getExp" -> 0.5f;
+            case "getFoodLevel" -> 20;
+            case "getSaturation" -> 5.0f;
+            case "getHealth" -> 20.0;
+            case "getGameMode" -> GameMode.SURVIVAL;
+            case "getAllowFlight", "isFlying" -> false;
+            case "getInventory" -> inventory;
+            case "getActivePotionEffects" -> List.of();
+            case "getLocation" -> location.clone();
+            default -> null;
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Function<String, Object> answers) {
+        return (T) Proxy.newProxyInstance(StandIns.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName() + "StandIn";
+                    default -> answers.apply(method.getName());
+                });
+    }
+}
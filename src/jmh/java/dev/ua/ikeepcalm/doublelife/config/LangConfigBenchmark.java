@@ -0,0 +1,57 @@
+package dev.ua.ikeepcalm.doublelife.config;
+
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Message lookup with placeholder substitution, using the bundled language files.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LangConfigBenchmark {
+
+    private LangConfig langConfig;
+
+    @Setup
+    public void setup() throws Exception {
+        Map<String, FileConfiguration> languages = new HashMap<>();
+        for (String language : new String[]{"en", "uk"}) {
+            try (Reader reader = new InputStreamReader(
+                    LangConfigBenchmark.class.getResourceAsStream("/lang/" + language + ".yml"), StandardCharsets.UTF_8)) {
+                languages.put(language, YamlConfiguration.loadConfiguration(reader));
+            }
+        }
+        langConfig = new LangConfig(languages, "en");
+    }
+
+    @Benchmark
+    public String singlePlaceholder() {
+        return langConfig.getMessage("bossbar.remaining-time", "uk", 7L);
+    }
+
+    @Benchmark
+    public String twoPlaceholders() {
+        return langConfig.getMessage("log.gamemode-changed", "en", "SURVIVAL", "CREATIVE");
+    }
+}
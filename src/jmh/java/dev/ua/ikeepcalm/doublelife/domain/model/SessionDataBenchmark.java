@@ -0,0 +1,53 @@
+package dev.ua.ikeepcalm.doublelife.domain.model;
+
+import dev.ua.ikeepcalm.doublelife.benchmark.StandIns;
+import dev.ua.ikeepcalm.doublelife.domain.model.source.DoubleLifeMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session (de)serialization as used when persisting sessions across restarts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionDataBenchmark {
+
+    private SessionData session;
+    private Map<String, Object> serialized;
+
+    @Setup
+    public void setup() {
+        session = new SessionData(UUID.randomUUID(), PlayerState.capture(StandIns.player()), DoubleLifeMode.TURBO);
+
+        // Mirror what YamlConfiguration hands back: nested objects come in as plain maps
+        serialized = new HashMap<>(session.serialize());
+        serialized.put("savedState", session.getSavedState().serialize());
+    }
+
+    @Benchmark
+    public Map<String, Object> serialize() {
+        return session.serialize();
+    }
+
+    @Benchmark
+    public SessionData deserialize() {
+        return SessionData.deserialize(serialized);
+    }
+}
@@ -0,0 +1,57 @@
+package dev.ua.ikeepcalm.doublelife.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Restricted-command lookup as done on every PlayerCommandPreprocessEvent.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommandTokenizerBenchmark {
+
+    private static final List<String> RESTRICTED = List.of(
+            "tp", "tpa", "tphere", "co", "coreprotect", "gm", "gamemode",
+            "give", "item", "enchant", "effect", "weather", "time");
+
+    @Param({"/tp Notch 100 64 100", "/minecraft:gamemode creative", "/msg Notch hello there, how are you?"})
+    public String message;
+
+    private CommandKeySet keySet;
+
+    @Setup
+    public void setup() {
+        keySet = new CommandKeySet(RESTRICTED);
+    }
+
+    @Benchmark
+    public boolean splitAndListContains() {
+        String command = message.toLowerCase();
+        if (command.startsWith("/")) {
+            command = command.substring(1);
+        }
+        return RESTRICTED.contains(command.split(" ")[0]);
+    }
+
+    @Benchmark
+    public boolean tokenizerAndKeySet() {
+        long label = CommandTokenizer.labelSpan(message);
+        return keySet.contains(message, CommandTokenizer.spanStart(label), CommandTokenizer.spanEnd(label));
+    }
+}
@@ -0,0 +1,38 @@
+package dev.ua.ikeepcalm.doublelife.util;
+
+import net.kyori.adventure.text.Component;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MiniMessage gradient rendering for repeated titles and for text that is different every time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComponentUtilBenchmark {
+
+    private long counter;
+
+    @Benchmark
+    public Component gradientRepeated() {
+        return ComponentUtil.gradient("Double Life - 7 minutes remaining", "#FFD700", "#FF6B35");
+    }
+
+    @Benchmark
+    public Component gradientUnique() {
+        return ComponentUtil.gradient("Double Life - " + counter++ + " minutes remaining", "#FFD700", "#FF6B35");
+    }
+}
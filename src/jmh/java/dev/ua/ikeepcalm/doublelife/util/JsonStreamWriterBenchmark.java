@@ -0,0 +1,55 @@
+package dev.ua.ikeepcalm.doublelife.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming JSON encoding of session logs into webhook payloads, from a string and from a reader.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonStreamWriterBenchmark {
+
+    @Param({"100", "10000"})
+    public int lines;
+
+    private String log;
+
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < lines; i++) {
+            builder.append("[12:00:").append(i % 60).append("] Command Executed: /give \"Notch\" diamond ")
+                    .append(i).append(" @ world [").append(i).append(", 64, ").append(-i).append("]\n");
+        }
+        log = builder.toString();
+    }
+
+    @Benchmark
+    public void encodeString() throws IOException {
+        new JsonStreamWriter(Writer.nullWriter()).beginObject().name("log").value(log).endObject().flush();
+    }
+
+    @Benchmark
+    public void encodeReader() throws IOException {
+        new JsonStreamWriter(Writer.nullWriter()).beginObject().name("log").value(new StringReader(log)).endObject().flush();
+    }
+}
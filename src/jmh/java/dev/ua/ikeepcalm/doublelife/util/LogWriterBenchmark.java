@@ -0,0 +1,80 @@
+package dev.ua.ikeepcalm.doublelife.util;
+
+import dev.ua.ikeepcalm.doublelife.benchmark.StandIns;
+import dev.ua.ikeepcalm.doublelife.domain.model.ActivityJournal;
+import dev.ua.ikeepcalm.doublelife.domain.model.PackedLocation;
+import dev.ua.ikeepcalm.doublelife.domain.model.PlayerState;
+import dev.ua.ikeepcalm.doublelife.domain.model.SessionData;
+import dev.ua.ikeepcalm.doublelife.domain.model.SessionSnapshot;
+import dev.ua.ikeepcalm.doublelife.domain.model.source.ActivityType;
+import dev.ua.ikeepcalm.doublelife.domain.model.source.DoubleLifeMode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Session log rendering, reading activities back from a journal on disk.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogWriterBenchmark {
+
+    private static final ActivityType[] TYPES = ActivityType.values();
+
+    @Param({"100", "10000"})
+    public int activities;
+
+    private SessionSnapshot snapshot;
+    private LogWriter logWriter;
+
+    @Setup
+    public void setup() throws IOException {
+        Path journalFile = Files.createTempFile("doublelife-benchmark", ".journal");
+        SessionData session = new SessionData(UUID.randomUUID(), PlayerState.capture(StandIns.player()), DoubleLifeMode.TURBO);
+        session.attachJournal(ActivityJournal.open(journalFile, Logger.getLogger("LogWriterBenchmark")));
+
+        for (int i = 0; i < activities; i++) {
+            session.logActivity(TYPES[i % TYPES.length], "/tp Notch " + i + " 64 " + -i, PackedLocation.of("world", i, 64, -i));
+        }
+        session.end();
+
+        snapshot = session.snapshot("Notch");
+        logWriter = new LogWriter(null, snapshot);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        snapshot.discardJournal();
+    }
+
+    @Benchmark
+    public void formatLog() throws IOException {
+        logWriter.formatLog(Writer.nullWriter());
+    }
+
+    @Benchmark
+    public String formatLogForDiscord() {
+        return logWriter.formatLogForDiscord(1800);
+    }
+}
@@ -3,11 +3,15 @@ package dev.ua.ikeepcalm.doublelife;
 import dev.rollczi.litecommands.LiteCommands;
 import dev.rollczi.litecommands.bukkit.LiteBukkitFactory;
 import dev.ua.ikeepcalm.doublelife.command.DoubleLifeCommand;
+import dev.ua.ikeepcalm.doublelife.config.ConfigReloader;
 import dev.ua.ikeepcalm.doublelife.config.PluginConfig;
+import dev.ua.ikeepcalm.doublelife.domain.service.LogWriterService;
+import dev.ua.ikeepcalm.doublelife.domain.service.RestrictedCommandIndex;
 import dev.ua.ikeepcalm.doublelife.domain.service.SessionManager;
 import dev.ua.ikeepcalm.doublelife.listener.ActivityListener;
 import dev.ua.ikeepcalm.doublelife.listener.CommandInterceptor;
 import dev.ua.ikeepcalm.doublelife.listener.PlayerJoinListener;
+import dev.ua.ikeepcalm.doublelife.listener.PlayerLocaleListener;
 import dev.ua.ikeepcalm.doublelife.config.LangConfig;
 import dev.ua.ikeepcalm.doublelife.domain.model.SessionData;
 import dev.ua.ikeepcalm.doublelife.domain.model.PlayerState;
@@ -23,12 +27,16 @@ public class DoubleLife extends JavaPlugin {
 
     @Getter
     private static DoubleLife instance;
-    private PluginConfig pluginConfig;
+    // Swapped as a whole by the config reloader
+    private volatile PluginConfig pluginConfig;
     private LangConfig langConfig;
     private SessionManager sessionManager;
+    private LogWriterService logWriterService;
+    private RestrictedCommandIndex restrictedCommandIndex;
     private LuckPerms luckPerms;
     private WebhookUtil webhookUtil;
     private LiteCommands<org.bukkit.command.CommandSender> liteCommands;
+    private ConfigReloader configReloader;
 
     @Override
     public void onEnable() {
@@ -39,7 +47,7 @@ public class DoubleLife extends JavaPlugin {
         ConfigurationSerialization.registerClass(PlayerState.class);
 
         saveDefaultConfig();
-        this.pluginConfig = new PluginConfig(this);
+        this.pluginConfig = new PluginConfig(this, getConfig());
         this.langConfig = new LangConfig(this);
 
         if (!setupLuckPerms()) {
@@ -49,7 +57,10 @@ public class DoubleLife extends JavaPlugin {
         }
 
         this.sessionManager = new SessionManager(this);
+        this.logWriterService = new LogWriterService(this);
         this.webhookUtil = new WebhookUtil(this);
+        this.restrictedCommandIndex = new RestrictedCommandIndex(this);
+        this.configReloader = new ConfigReloader(this);
 
         registerCommands();
         registerListeners();
@@ -59,15 +70,28 @@ public class DoubleLife extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        if (configReloader != null) {
+            configReloader.shutdown();
+        }
+
         if (sessionManager != null) {
             try {
                 sessionManager.saveSessionsOnShutdown();
                 sessionManager.endAllSessions();
+                sessionManager.getPermissionService().awaitPending();
             } catch (Exception e) {
                 getLogger().severe("Error during session cleanup: " + e.getMessage());
             }
         }
 
+        if (logWriterService != null) {
+            logWriterService.shutdown();
+        }
+
+        if (webhookUtil != null) {
+            webhookUtil.shutdown();
+        }
+
         if (liteCommands != null) {
             try {
                 liteCommands.unregister();
@@ -102,13 +126,22 @@ public class DoubleLife extends JavaPlugin {
         getServer().getPluginManager().registerEvents(new ActivityListener(this), this);
         getServer().getPluginManager().registerEvents(new CommandInterceptor(this), this);
         getServer().getPluginManager().registerEvents(new PlayerJoinListener(this), this);
+        getServer().getPluginManager().registerEvents(new PlayerLocaleListener(this), this);
     }
 
-    public void reload() {
-        reloadConfig();
-        this.pluginConfig = new PluginConfig(this);
-        this.langConfig.reloadLanguages();
-        getLogger().info(langConfig.getMessage("messages.reload-success"));
+    /**
+     * Publishes a configuration parsed by the {@link ConfigReloader} and hands the new settings to the services that
+     * cache them; runs on the main thread
+     */
+    public void applyConfig(PluginConfig pluginConfig) {
+        this.pluginConfig = pluginConfig;
+        if (sessionManager != null) {
+            sessionManager.getBossBarRenderer().invalidate();
+            sessionManager.getCheckpointService().updateInterval(pluginConfig.getCheckpointIntervalSeconds());
+        }
+        if (restrictedCommandIndex != null) {
+            restrictedCommandIndex.invalidateAll();
+        }
     }
 
 }
\ No newline at end of file
@@ -9,8 +9,13 @@ import dev.rollczi.litecommands.annotations.permission.Permission;
 import dev.ua.ikeepcalm.doublelife.DoubleLife;
 import dev.ua.ikeepcalm.doublelife.domain.model.source.DoubleLifeMode;
 import dev.ua.ikeepcalm.doublelife.domain.model.SessionData;
+import dev.ua.ikeepcalm.doublelife.domain.service.BossBarRenderer;
+import dev.ua.ikeepcalm.doublelife.domain.service.CheckpointService;
+import dev.ua.ikeepcalm.doublelife.domain.service.LogWriterService;
 import dev.ua.ikeepcalm.doublelife.gui.DoubleLifeGUI;
 import dev.ua.ikeepcalm.doublelife.util.ComponentUtil;
+import dev.ua.ikeepcalm.doublelife.util.WebhookSpool;
+import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 
@@ -149,17 +154,56 @@ public class DoubleLifeCommand {
             
         sender.sendMessage(ComponentUtil.info(durationMsg));
         sender.sendMessage(ComponentUtil.info(remainingMsg));
-        sender.sendMessage(ComponentUtil.info("Activities logged: " + session.getActivities().size()));
+        sender.sendMessage(ComponentUtil.info("Activities logged: " + session.getActivityCount()));
     }
 
     @Execute(name = "reload")
     @Permission("doublelife.admin")
     public void reload(@Context CommandSender sender) {
-        plugin.reload();
-        String message = (sender instanceof Player) ? 
-            plugin.getLangConfig().getMessage("messages.reload-success", (Player) sender) : 
-            plugin.getLangConfig().getMessage("messages.reload-success");
-        sender.sendMessage(ComponentUtil.success(message));
+        // Parsing happens off the main thread; answer once the new configuration is live (or was rejected)
+        plugin.getConfigReloader().reload().whenComplete((ignored, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+            String key = error == null ? "messages.reload-success" : "messages.reload-failed";
+            String message = (sender instanceof Player) ?
+                plugin.getLangConfig().getMessage(key, (Player) sender) :
+                plugin.getLangConfig().getMessage(key);
+            sender.sendMessage(error == null ? ComponentUtil.success(message) : ComponentUtil.error(message));
+        }));
+    }
+
+    @Execute(name = "metrics")
+    @Permission("doublelife.admin")
+    public void metrics(@Context CommandSender sender) {
+        BossBarRenderer bossBarRenderer = plugin.getSessionManager().getBossBarRenderer();
+        LogWriterService logWriterService = plugin.getLogWriterService();
+        CheckpointService checkpointService = plugin.getSessionManager().getCheckpointService();
+        WebhookSpool spool = plugin.getWebhookUtil().getSpool();
+
+        sender.sendMessage(ComponentUtil.gradient(message(sender, "metrics.header"), "#FFD700", "#FF6B35"));
+        sender.sendMessage(ComponentUtil.info(message(sender, "metrics.boss-bar-cache",
+                bossBarRenderer.getCacheHits(), bossBarRenderer.getCacheMisses())));
+        sender.sendMessage(ComponentUtil.info(message(sender, "metrics.boss-bar-updates",
+                bossBarRenderer.getSentUpdates(), bossBarRenderer.getSkippedUpdates())));
+        sender.sendMessage(ComponentUtil.info(message(sender, "metrics.log-writer",
+                logWriterService.getQueueDepth(), logWriterService.getWrittenLogs(), logWriterService.getFailedLogs(),
+                logWriterService.getAverageWriteMillis(), logWriterService.getMaxWriteMillis())));
+        sender.sendMessage(ComponentUtil.info(message(sender, "metrics.checkpoints",
+                checkpointService.getPendingCheckpoints(), checkpointService.getWrittenCheckpoints(),
+                checkpointService.getFailedCheckpoints())));
+        sender.sendMessage(ComponentUtil.info(message(sender, "metrics.webhook-spool",
+                spool.getQueueDepth(), spool.getOldestEntryAgeMillis() / 1000, spool.getDeliveredEntries(),
+                spool.getFailedAttempts(), spool.getRejectedEntries())));
+        sender.sendMessage(ComponentUtil.info(message(sender, "metrics.webhook-latency",
+                spool.getAverageLatencyMillis(), spool.getMaxLatencyMillis(),
+                plugin.getWebhookUtil().getDigest().getPendingEmbeds())));
+    }
+
+    /**
+     * Looks up a message in the sender's language, or the default language for the console
+     */
+    private String message(CommandSender sender, String key, Object... placeholders) {
+        return sender instanceof Player player
+                ? plugin.getLangConfig().getMessage(key, player, placeholders)
+                : plugin.getLangConfig().getMessage(key, placeholders);
     }
 
     @Execute(name = "help")
@@ -193,6 +237,8 @@ public class DoubleLifeCommand {
         if (sender.hasPermission("doublelife.admin")) {
             sender.sendMessage(ComponentUtil.info(
                 isPlayer ? plugin.getLangConfig().getMessage("help.reload", player) : plugin.getLangConfig().getMessage("help.reload")));
+            sender.sendMessage(ComponentUtil.info(
+                isPlayer ? plugin.getLangConfig().getMessage("help.metrics", player) : plugin.getLangConfig().getMessage("help.metrics")));
         }
     }
 }
\ No newline at end of file
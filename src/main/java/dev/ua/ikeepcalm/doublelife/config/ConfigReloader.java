@@ -0,0 +1,201 @@
+package dev.ua.ikeepcalm.doublelife.config;
+
+import dev.ua.ikeepcalm.doublelife.DoubleLife;
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads config.yml and the language files without blocking the main thread. A complete new snapshot (parsed
+ * config, {@link PluginConfig} and compiled language catalogs) is built and validated on a background thread; only
+ * if all of it succeeds is it published on the main thread, as plain reference swaps, so readers see either the old
+ * or the new configuration and never a half-loaded one.
+ * When {@code auto-reload} is enabled, a {@link WatchService} on the data folder triggers the same path whenever a
+ * watched file changes.
+ */
+public class ConfigReloader {
+
+    private static final long DEBOUNCE_MILLIS = 1000;
+
+    private final DoubleLife plugin;
+    private final ScheduledExecutorService executor;
+    private ScheduledFuture<?> pendingReload;
+    private WatchService watchService;
+    private Thread watcher;
+
+    public ConfigReloader(DoubleLife plugin) {
+        this.plugin = plugin;
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DoubleLife-ConfigReload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        updateWatcher(plugin.getPluginConfig().isAutoReload());
+    }
+
+    /**
+     * Parses everything off-thread and completes on the main thread once the new configuration is live. Completes
+     * exceptionally, leaving the current configuration in place, if any file fails to parse or validate.
+     */
+    public CompletableFuture<Void> reload() {
+        return reload(false);
+    }
+
+    private CompletableFuture<Void> reload(boolean fileChanged) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        executor.execute(() -> {
+            Snapshot snapshot;
+            try {
+                snapshot = load();
+            } catch (Exception e) {
+                plugin.getLogger().warning("Reload failed, keeping the current configuration: " + e.getMessage());
+                result.completeExceptionally(e);
+                return;
+            }
+
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                // Languages first, so anything logged or sent from here on uses the new catalogs
+                plugin.getLangConfig().apply(snapshot.languages(), snapshot.pluginConfig().getLanguage());
+                plugin.applyConfig(snapshot.pluginConfig());
+                updateWatcher(snapshot.pluginConfig().isAutoReload());
+                plugin.getLogger().info(fileChanged ? "Configuration reloaded after a file change"
+                        : plugin.getLangConfig().getMessage("messages.reload-success"));
+                result.complete(null);
+            });
+        });
+        return result;
+    }
+
+    public void shutdown() {
+        updateWatcher(false);
+        executor.shutdownNow();
+    }
+
+    private Snapshot load() throws Exception {
+        File configFile = new File(plugin.getDataFolder(), "config.yml");
+        YamlConfiguration config = new YamlConfiguration();
+        // Unlike loadConfiguration, load reports syntax errors instead of returning an empty config
+        config.load(configFile);
+
+        InputStream defaults = plugin.getResource("config.yml");
+        if (defaults != null) {
+            try (InputStreamReader reader = new InputStreamReader(defaults, StandardCharsets.UTF_8)) {
+                config.setDefaults(YamlConfiguration.loadConfiguration(reader));
+            }
+        }
+
+        PluginConfig pluginConfig;
+        try {
+            pluginConfig = new PluginConfig(plugin, config);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("invalid config.yml: " + e.getMessage(), e);
+        }
+
+        return new Snapshot(pluginConfig, plugin.getLangConfig().parseLanguages(true));
+    }
+
+    private synchronized void updateWatcher(boolean enabled) {
+        if (enabled == (watcher != null)) {
+            return;
+        }
+
+        if (!enabled) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to stop the config watcher: " + e.getMessage());
+            }
+            watcher = null;
+            watchService = null;
+            return;
+        }
+
+        WatchService service = null;
+        try {
+            service = FileSystems.getDefault().newWatchService();
+            Path dataFolder = plugin.getDataFolder().toPath();
+            dataFolder.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            dataFolder.resolve("lang").register(service, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to watch the configuration for changes: " + e.getMessage());
+            if (service != null) {
+                try {
+                    service.close();
+                } catch (IOException closeError) {
+                    e.addSuppressed(closeError);
+                }
+            }
+            return;
+        }
+
+        WatchService started = service;
+        watchService = started;
+        watcher = new Thread(() -> watch(started), "DoubleLife-ConfigWatcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    private void watch(WatchService service) {
+        try {
+            while (true) {
+                WatchKey key = service.take();
+                boolean relevant = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    Object context = event.context();
+                    if (context instanceof Path changed && isWatched((Path) key.watchable(), changed)) {
+                        relevant = true;
+                    }
+                }
+                key.reset();
+
+                if (relevant) {
+                    scheduleReload();
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Watcher stopped
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isWatched(Path folder, Path changed) {
+        String name = changed.toString();
+        if (folder.endsWith("lang")) {
+            return name.endsWith(".yml");
+        }
+        return name.equals("config.yml");
+    }
+
+    /**
+     * Editors often write a file in several steps; wait for them to settle before reloading once
+     */
+    private synchronized void scheduleReload() {
+        if (pendingReload != null) {
+            pendingReload.cancel(false);
+        }
+        pendingReload = executor.schedule(() -> reload(true), DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private record Snapshot(PluginConfig pluginConfig, Map<String, MessageCatalog> languages) {
+    }
+}
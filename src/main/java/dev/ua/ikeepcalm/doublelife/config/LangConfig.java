@@ -8,26 +8,56 @@ import org.bukkit.entity.Player;
 import java.io.File;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.logging.Level;
 
+/**
+ * Message lookup for all loaded languages. Each language file is compiled at load time into a {@link MessageCatalog}
+ * of pre-split templates, and the language resolved for each player is cached until their locale changes or they
+ * leave.
+ */
 public class LangConfig {
     
     private final DoubleLife plugin;
-    private final Map<String, FileConfiguration> languages = new HashMap<>();
-    private String defaultLanguage = "en";
+    private volatile Map<String, MessageCatalog> languages = Map.of();
+    private volatile String defaultLanguage = "en";
+    private final Map<UUID, String> playerLanguages = new ConcurrentHashMap<>();
+
+    private static final Object[] NO_PLACEHOLDERS = new Object[0];
     
     public LangConfig(DoubleLife plugin) {
         this.plugin = plugin;
         loadLanguages();
         this.defaultLanguage = plugin.getPluginConfig().getLanguage();
     }
+
+    // Used by benchmarks to work with already parsed language files
+    LangConfig(Map<String, FileConfiguration> languages, String defaultLanguage) {
+        this.plugin = null;
+        this.languages = compile(languages);
+        this.defaultLanguage = defaultLanguage;
+    }
     
     private void loadLanguages() {
+        this.languages = parseLanguages(false);
+        
+        if (!languages.containsKey(defaultLanguage)) {
+            plugin.getLogger().warning("Default language '" + defaultLanguage + "' not found! Plugin messages may not work correctly.");
+        }
+    }
+
+    /**
+     * Reads and compiles every language file without touching the live catalogs; safe to call off the main thread.
+     * When strict, a file that fails to parse fails the whole call instead of being skipped.
+     */
+    Map<String, MessageCatalog> parseLanguages(boolean strict) {
         File langDir = new File(plugin.getDataFolder(), "lang");
         if (!langDir.exists()) {
             langDir.mkdirs();
@@ -36,30 +66,45 @@ public class LangConfig {
         saveDefaultLanguageFile("en.yml");
         saveDefaultLanguageFile("uk.yml");
 
+        Map<String, FileConfiguration> parsed = new HashMap<>();
         File[] langFiles = langDir.listFiles((dir, name) -> name.endsWith(".yml"));
         if (langFiles != null) {
             for (File langFile : langFiles) {
                 String langCode = langFile.getName().replace(".yml", "");
                 try {
-                    FileConfiguration config = YamlConfiguration.loadConfiguration(langFile);
+                    // Unlike loadConfiguration, load reports syntax errors instead of returning an empty config
+                    YamlConfiguration config = new YamlConfiguration();
+                    config.load(langFile);
                     
                     InputStream defConfigStream = plugin.getResource("lang/" + langFile.getName());
                     if (defConfigStream != null) {
-                        YamlConfiguration defConfig = YamlConfiguration.loadConfiguration(new InputStreamReader(defConfigStream));
+                        YamlConfiguration defConfig = YamlConfiguration.loadConfiguration(new InputStreamReader(defConfigStream, StandardCharsets.UTF_8));
                         config.setDefaults(defConfig);
                     }
                     
-                    languages.put(langCode, config);
+                    parsed.put(langCode, config);
                     plugin.getLogger().info("Loaded language: " + langCode);
                 } catch (Exception e) {
+                    if (strict) {
+                        throw new IllegalArgumentException("invalid lang/" + langFile.getName() + ": " + e.getMessage(), e);
+                    }
                     plugin.getLogger().log(Level.WARNING, "Failed to load language file: " + langFile.getName(), e);
                 }
             }
         }
-        
-        if (!languages.containsKey(defaultLanguage)) {
+        return compile(parsed);
+    }
+
+    /**
+     * Publishes catalogs built by {@link #parseLanguages(boolean)}; readers see either the old or the new set
+     */
+    void apply(Map<String, MessageCatalog> catalogs, String defaultLanguage) {
+        if (!catalogs.containsKey(defaultLanguage)) {
             plugin.getLogger().warning("Default language '" + defaultLanguage + "' not found! Plugin messages may not work correctly.");
         }
+        this.languages = catalogs;
+        this.defaultLanguage = defaultLanguage;
+        playerLanguages.clear();
     }
     
     private void saveDefaultLanguageFile(String filename) {
@@ -69,17 +114,14 @@ public class LangConfig {
         }
     }
     
+    private static Map<String, MessageCatalog> compile(Map<String, FileConfiguration> parsed) {
+        Map<String, MessageCatalog> catalogs = new HashMap<>();
+        parsed.forEach((language, config) -> catalogs.put(language, MessageCatalog.compile(config)));
+        return Map.copyOf(catalogs);
+    }
+
     public String getMessage(String key, String language) {
-        FileConfiguration config = languages.get(language);
-        if (config == null) {
-            config = languages.get(defaultLanguage);
-        }
-        
-        if (config == null) {
-            return "Missing language config for key: " + key;
-        }
-        
-        return config.getString(key, "Missing translation: " + key);
+        return getMessage(key, language, NO_PLACEHOLDERS);
     }
     
     public String getMessage(String key) {
@@ -87,13 +129,13 @@ public class LangConfig {
     }
     
     public String getMessage(String key, String language, Object... placeholders) {
-        String message = getMessage(key, language);
-        
-        for (int i = 0; i < placeholders.length; i++) {
-            message = message.replace("{" + i + "}", String.valueOf(placeholders[i]));
+        MessageCatalog catalog = catalog(language);
+        if (catalog == null) {
+            return "Missing language config for key: " + key;
         }
-        
-        return message;
+
+        MessageTemplate template = catalog.message(key);
+        return template == null ? "Missing translation: " + key : template.render(placeholders);
     }
     
     public String getMessage(String key, Object... placeholders) {
@@ -113,16 +155,7 @@ public class LangConfig {
     }
     
     public List<String> getMessageList(String key, String language) {
-        FileConfiguration config = languages.get(language);
-        if (config == null) {
-            config = languages.get(defaultLanguage);
-        }
-        
-        if (config == null) {
-            return List.of("Missing language config for key: " + key);
-        }
-        
-        return config.getStringList(key);
+        return getMessageList(key, language, NO_PLACEHOLDERS);
     }
     
     public List<String> getMessageList(String key, Object... placeholders) {
@@ -138,34 +171,52 @@ public class LangConfig {
     }
     
     public List<String> getMessageList(String key, String language, Object... placeholders) {
-        List<String> messages = getMessageList(key, language);
-        List<String> result = new ArrayList<>();
-        
-        for (String message : messages) {
-            for (int i = 0; i < placeholders.length; i++) {
-                message = message.replace("{" + i + "}", String.valueOf(placeholders[i]));
-            }
-            result.add(message);
+        MessageCatalog catalog = catalog(language);
+        if (catalog == null) {
+            return List.of("Missing language config for key: " + key);
+        }
+
+        List<MessageTemplate> templates = catalog.list(key);
+        if (templates == null) {
+            return new ArrayList<>();
+        }
+
+        List<String> result = new ArrayList<>(templates.size());
+        for (MessageTemplate template : templates) {
+            result.add(template.render(placeholders));
         }
-        
         return result;
     }
     
     public void setDefaultLanguage(String language) {
         if (languages.containsKey(language)) {
             this.defaultLanguage = language;
+            playerLanguages.clear();
         } else {
             plugin.getLogger().warning("Attempted to set unknown language as default: " + language);
         }
     }
     
-    private String getPlayerLanguage(Player player) {
+    public String getPlayerLanguage(Player player) {
         if (player == null) {
             return defaultLanguage;
         }
-        
-        Locale playerLocale = player.locale();
-        String playerLanguage = playerLocale.getLanguage();
+        return playerLanguages.computeIfAbsent(player.getUniqueId(), id -> resolveLanguage(player.locale()));
+    }
+
+    /**
+     * Re-resolves the player's language for a new client locale; Paper fires the event before player.locale() changes
+     */
+    public void updatePlayerLocale(Player player, Locale locale) {
+        playerLanguages.put(player.getUniqueId(), resolveLanguage(locale));
+    }
+
+    public void forgetPlayer(UUID playerId) {
+        playerLanguages.remove(playerId);
+    }
+
+    private String resolveLanguage(Locale locale) {
+        String playerLanguage = locale.getLanguage();
         
         // Try exact language match first (e.g., "en", "uk")
         if (languages.containsKey(playerLanguage)) {
@@ -173,7 +224,7 @@ public class LangConfig {
         }
         
         // Try full locale string as fallback (e.g., "en_US", "uk_UA")
-        String fullLocale = playerLocale.toString().toLowerCase();
+        String fullLocale = locale.toString().toLowerCase();
         if (languages.containsKey(fullLocale)) {
             return fullLocale;
         }
@@ -181,10 +232,10 @@ public class LangConfig {
         // Fallback to default language
         return defaultLanguage;
     }
-    
-    public void reloadLanguages() {
-        languages.clear();
-        loadLanguages();
-        this.defaultLanguage = plugin.getPluginConfig().getLanguage();
+
+    private MessageCatalog catalog(String language) {
+        Map<String, MessageCatalog> catalogs = languages;
+        MessageCatalog catalog = catalogs.get(language);
+        return catalog != null ? catalog : catalogs.get(defaultLanguage);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,55 @@
+package dev.ua.ikeepcalm.doublelife.config;
+
+import org.bukkit.configuration.Configuration;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One language compiled into a flat, immutable map from full key path to template, with the bundled defaults
+ * already merged in, so a lookup is a single hash probe instead of a path walk through nested sections.
+ */
+final class MessageCatalog {
+
+    private final Map<String, MessageTemplate> messages;
+    private final Map<String, List<MessageTemplate>> lists;
+
+    private MessageCatalog(Map<String, MessageTemplate> messages, Map<String, List<MessageTemplate>> lists) {
+        this.messages = messages;
+        this.lists = lists;
+    }
+
+    static MessageCatalog compile(FileConfiguration config) {
+        Set<String> keys = new LinkedHashSet<>(config.getKeys(true));
+        Configuration defaults = config.getDefaults();
+        if (defaults != null) {
+            keys.addAll(defaults.getKeys(true));
+        }
+
+        Map<String, MessageTemplate> messages = new HashMap<>();
+        Map<String, List<MessageTemplate>> lists = new HashMap<>();
+        for (String key : keys) {
+            if (config.isList(key)) {
+                lists.put(key, config.getStringList(key).stream().map(MessageTemplate::compile).toList());
+            } else if (!config.isConfigurationSection(key)) {
+                String value = config.getString(key);
+                if (value != null) {
+                    messages.put(key, MessageTemplate.compile(value));
+                }
+            }
+        }
+        return new MessageCatalog(Map.copyOf(messages), Map.copyOf(lists));
+    }
+
+    MessageTemplate message(String key) {
+        return messages.get(key);
+    }
+
+    List<MessageTemplate> list(String key) {
+        return lists.get(key);
+    }
+}
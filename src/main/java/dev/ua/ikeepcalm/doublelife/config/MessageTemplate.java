@@ -0,0 +1,81 @@
+package dev.ua.ikeepcalm.doublelife.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A message split at load time into literal segments and {@code {n}} placeholder indexes, so rendering is a single
+ * pass of appends. Placeholders without a matching argument are kept as written.
+ */
+final class MessageTemplate {
+
+    private final String source;
+    // literals[i] precedes placeholders[i]; the last literal follows the last placeholder
+    private final String[] literals;
+    private final int[] placeholders;
+
+    private MessageTemplate(String source, String[] literals, int[] placeholders) {
+        this.source = source;
+        this.literals = literals;
+        this.placeholders = placeholders;
+    }
+
+    static MessageTemplate compile(String source) {
+        List<String> literals = new ArrayList<>();
+        List<Integer> placeholders = new ArrayList<>();
+
+        int literalStart = 0;
+        int i = 0;
+        while (i < source.length()) {
+            int end = placeholderEnd(source, i);
+            if (end < 0) {
+                i++;
+                continue;
+            }
+            literals.add(source.substring(literalStart, i));
+            placeholders.add(Integer.parseInt(source, i + 1, end - 1, 10));
+            i = end;
+            literalStart = end;
+        }
+        literals.add(source.substring(literalStart));
+
+        return new MessageTemplate(source, literals.toArray(String[]::new),
+                placeholders.stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    String render(Object... arguments) {
+        if (placeholders.length == 0) {
+            return source;
+        }
+
+        StringBuilder out = new StringBuilder(source.length() + 16 * placeholders.length);
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            int index = placeholders[i];
+            if (index < arguments.length) {
+                out.append(arguments[index]);
+            } else {
+                out.append('{').append(index).append('}');
+            }
+        }
+        return out.append(literals[placeholders.length]).toString();
+    }
+
+    /**
+     * End (exclusive) of a {digits} placeholder starting at the given index, or -1 if there is none
+     */
+    private static int placeholderEnd(String source, int start) {
+        if (source.charAt(start) != '{') {
+            return -1;
+        }
+        int i = start + 1;
+        // Capped well below int overflow; longer indexes are left as text
+        while (i < source.length() && i - start <= 6 && source.charAt(i) >= '0' && source.charAt(i) <= '9') {
+            i++;
+        }
+        if (i == start + 1 || i >= source.length() || source.charAt(i) != '}') {
+            return -1;
+        }
+        return i + 1;
+    }
+}
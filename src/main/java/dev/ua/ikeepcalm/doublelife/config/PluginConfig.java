@@ -1,25 +1,39 @@
 package dev.ua.ikeepcalm.doublelife.config;
 
 import dev.ua.ikeepcalm.doublelife.DoubleLife;
+import dev.ua.ikeepcalm.doublelife.domain.model.source.ActivityType;
+import dev.ua.ikeepcalm.doublelife.domain.service.PermissionService;
+import dev.ua.ikeepcalm.doublelife.util.CommandTokenizer;
 import lombok.Getter;
+import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.configuration.file.FileConfiguration;
 
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import org.bukkit.configuration.ConfigurationSection;
+import java.util.Set;
+import java.util.regex.Pattern;
 
+/**
+ * Immutable snapshot of config.yml, compiled once when it is loaded. Collections are unmodifiable and already in the
+ * shape their callers need (group restrictions as normalized command sets, entry commands split around
+ * {@code {player}}), and no reference to the YAML tree is kept, so nothing reads it at runtime.
+ */
 @Getter
 public class PluginConfig {
     
-    private final DoubleLife plugin;
-    private final FileConfiguration config;
-    
     private final long maxDuration;
     private final long cooldownDuration;
     private final List<String> temporaryPermissions;
-    private final List<String> entryCommands;
-    private final Map<String, List<String>> groupCommands;
+    private final PermissionService.Backend turboPermissionBackend;
+    private final List<CommandTemplate> entryCommands;
+    // Lower-case group name to the normalized base commands it restricts
+    private final Map<String, Set<String>> groupCommands;
     
     private final String language;
     
@@ -34,25 +48,59 @@ public class PluginConfig {
     private final boolean logContainerAccess;
     private final boolean logBlockPlacements;
     private final boolean logItemDrops;
+    private final Map<ActivityType, Integer> activityRateLimits;
     
     private final boolean discordWebhookEnabled;
     private final String discordWebhookUrl;
     private final String discordWebhookFormat;
     private final boolean discordTurboMention;
+    private final long discordAttachmentLimitBytes;
+    private final long discordCompressThresholdBytes;
+    private final boolean discordDigestEnabled;
+    private final long discordDigestWindowSeconds;
+    private final boolean discordDigestTurboImmediate;
     
     private final boolean callbackEnabled;
     private final String callbackUrl;
     private final String callbackMethod;
+    private final Map<String, String> callbackHeaders;
+
+    private final boolean persistenceCompress;
+    private final long checkpointIntervalSeconds;
     
-    public PluginConfig(DoubleLife plugin) {
-        this.plugin = plugin;
-        this.config = plugin.getConfig();
-        
+    private final boolean autoReload;
+
+    /**
+     * A console command with the player's name spliced in between its pre-split parts
+     */
+    public record CommandTemplate(List<String> parts) {
+
+        private static final String PLAYER_PLACEHOLDER = "{player}";
+
+        static CommandTemplate compile(String command) {
+            return new CommandTemplate(List.of(command.split(Pattern.quote(PLAYER_PLACEHOLDER), -1)));
+        }
+
+        public String render(String playerName) {
+            if (parts.size() == 1) {
+                return parts.get(0);
+            }
+            StringBuilder command = new StringBuilder(64);
+            command.append(parts.get(0));
+            for (int i = 1; i < parts.size(); i++) {
+                command.append(playerName).append(parts.get(i));
+            }
+            return command.toString();
+        }
+    }
+    
+    public PluginConfig(DoubleLife plugin, FileConfiguration config) {
         this.maxDuration = parseDuration(config.getString("max-duration", "10m"));
         this.cooldownDuration = parseDuration(config.getString("cooldown", "5m"));
-        this.temporaryPermissions = config.getStringList("temporary-permissions");
-        this.entryCommands = config.getStringList("entry-commands");
-        this.groupCommands = loadGroupCommands();
+        this.temporaryPermissions = List.copyOf(config.getStringList("temporary-permissions"));
+        this.turboPermissionBackend = parseBackend(plugin, config.getString("permission-backend", "persistent"));
+        this.entryCommands = config.getStringList("entry-commands").stream().map(CommandTemplate::compile).toList();
+        this.groupCommands = loadGroupCommands(config);
         
         this.language = config.getString("language.default", "en");
         
@@ -67,18 +115,30 @@ public class PluginConfig {
         this.logContainerAccess = config.getBoolean("logging.container-access", true);
         this.logBlockPlacements = config.getBoolean("logging.block-placements", true);
         this.logItemDrops = config.getBoolean("logging.item-drops", true);
+        this.activityRateLimits = loadActivityRateLimits(config);
         
         this.discordWebhookEnabled = config.getBoolean("webhook.discord.enabled", false);
         this.discordWebhookUrl = config.getString("webhook.discord.url", "");
         this.discordWebhookFormat = config.getString("webhook.discord.format", "markdown");
         this.discordTurboMention = config.getBoolean("webhook.discord.turbo-mention", true);
+        this.discordAttachmentLimitBytes = Math.max(1, config.getLong("webhook.discord.attachment-limit-mb", 8)) * 1024 * 1024;
+        this.discordCompressThresholdBytes = config.getLong("webhook.discord.compress-threshold-kb", 256) * 1024;
+        this.discordDigestEnabled = config.getBoolean("webhook.discord.digest.enabled", false);
+        this.discordDigestWindowSeconds = Math.max(1, config.getLong("webhook.discord.digest.window", 60));
+        this.discordDigestTurboImmediate = config.getBoolean("webhook.discord.digest.turbo-immediate", true);
         
         this.callbackEnabled = config.getBoolean("webhook.callback.enabled", false);
         this.callbackUrl = config.getString("webhook.callback.url", "");
         this.callbackMethod = config.getString("webhook.callback.method", "POST");
+        this.callbackHeaders = loadCallbackHeaders(config);
+
+        this.persistenceCompress = config.getBoolean("persistence.compress", true);
+        this.checkpointIntervalSeconds = Math.max(1, config.getLong("persistence.checkpoint-interval", 30));
+
+        this.autoReload = config.getBoolean("auto-reload", false);
     }
     
-    private long parseDuration(String duration) {
+    private static long parseDuration(String duration) {
         if (duration == null) return 10;
         
         duration = duration.trim().toLowerCase();
@@ -91,19 +151,73 @@ public class PluginConfig {
         return Long.parseLong(duration);
     }
     
-    private Map<String, List<String>> loadGroupCommands() {
-        Map<String, List<String>> result = new HashMap<>();
+    private static PermissionService.Backend parseBackend(DoubleLife plugin, String backend) {
+        try {
+            return PermissionService.Backend.valueOf(backend.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().warning("Unknown permission-backend '" + backend + "', using persistent");
+            return PermissionService.Backend.PERSISTENT;
+        }
+    }
+
+    private static Map<ActivityType, Integer> loadActivityRateLimits(FileConfiguration config) {
+        Map<ActivityType, Integer> result = new EnumMap<>(ActivityType.class);
+        ConfigurationSection section = config.getConfigurationSection("logging.rate-limits");
+
+        if (section == null) {
+            return Map.of();
+        }
+
+        for (ActivityType type : ActivityType.values()) {
+            int limit = section.getInt(type.name().toLowerCase(Locale.ROOT).replace('_', '-'), 0);
+            if (limit > 0) {
+                result.put(type, limit);
+            }
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static Map<String, String> loadCallbackHeaders(FileConfiguration config) {
+        Map<String, String> result = new LinkedHashMap<>();
+        ConfigurationSection section = config.getConfigurationSection("webhook.callback.headers");
+
+        if (section == null) {
+            return Map.of();
+        }
+
+        for (String name : section.getKeys(false)) {
+            String value = section.getString(name, "");
+            if (!value.isEmpty()) {
+                result.put(name, value);
+            }
+        }
+
+        return Collections.unmodifiableMap(result);
+    }
+
+    private static Map<String, Set<String>> loadGroupCommands(FileConfiguration config) {
+        Map<String, Set<String>> result = new HashMap<>();
         ConfigurationSection section = config.getConfigurationSection("group-commands");
         
         if (section == null) {
-            return result;
+            return Map.of();
         }
         
         for (String groupName : section.getKeys(false)) {
-            List<String> commands = section.getStringList(groupName);
-            result.put(groupName, commands);
+            Set<String> commands = new HashSet<>();
+            for (String command : section.getStringList(groupName)) {
+                commands.add(CommandTokenizer.normalize(command));
+            }
+            result.merge(groupName.toLowerCase(Locale.ROOT), commands, (existing, added) -> {
+                Set<String> merged = new HashSet<>(existing);
+                merged.addAll(added);
+                return merged;
+            });
         }
         
-        return result;
+        Map<String, Set<String>> frozen = new HashMap<>();
+        result.forEach((group, commands) -> frozen.put(group, Set.copyOf(commands)));
+        return Map.copyOf(frozen);
     }
-}
\ No newline at end of file
+}
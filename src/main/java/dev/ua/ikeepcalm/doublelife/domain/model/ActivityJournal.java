@@ -0,0 +1,282 @@
+package dev.ua.ikeepcalm.doublelife.domain.model;
+
+import dev.ua.ikeepcalm.doublelife.domain.model.source.ActivityType;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Append-only, per-session activity journal on disk.
+ * Activities are stored as fixed-width entry records that reference strings by id; each distinct string is written
+ * once as a dictionary record and then interned, so repeated commands cost a few bytes per entry. Locations are kept
+ * packed, with only their world name interned.
+ * Once the intern table is full, new strings are written into scratch slots that the reader simply overwrites.
+ * A session restored after a restart reopens its journal with {@link #resume}, so one file covers the whole session.
+ */
+public class ActivityJournal implements Closeable {
+
+    private static final int MAGIC = 0x444C4A33; // "DLJ3"
+    private static final byte STRING_RECORD = 1;
+    private static final byte ENTRY_RECORD = 2;
+    private static final int ENTRY_RECORD_SIZE = 1 + 8 + 1 + 4 + 2 * (4 + 8) + 4;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_INTERNED_STRINGS = 4096;
+
+    private static final int NULL_ID = 0;
+    private static final int SCRATCH_DETAILS_ID = -1;
+    private static final int SCRATCH_WORLD_ID = -2;
+    private static final int SCRATCH_ORIGIN_WORLD_ID = -3;
+    private static final int UNKNOWN_WORLD_ID = -4;
+
+    private static final ActivityType[] TYPES = ActivityType.values();
+
+    private final Path path;
+    private final Logger logger;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final Map<String, Integer> interned = new HashMap<>();
+    private int nextId = 1;
+    private boolean failed;
+
+    private ActivityJournal(Path path, Logger logger, FileChannel channel) {
+        this.path = path;
+        this.logger = logger;
+        this.channel = channel;
+    }
+
+    public static ActivityJournal open(Path path, Logger logger) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        ActivityJournal journal = new ActivityJournal(path, logger, channel);
+        journal.buffer.putInt(MAGIC);
+        return journal;
+    }
+
+    /**
+     * Reopens an existing journal for appending, passing every activity already in it to the consumer and restoring
+     * the intern table. A record torn by a crash is cut off, so new records follow the last complete one.
+     */
+    public static ActivityJournal resume(Path path, Logger logger, Consumer<ActivityLog> consumer) throws IOException {
+        if (Files.size(path) < Integer.BYTES) {
+            // Nothing was flushed before the crash, not even the header
+            return open(path, logger);
+        }
+
+        Map<Integer, String> strings = new HashMap<>();
+        long end = read(path, strings, consumer);
+
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE);
+        try {
+            channel.truncate(end);
+            channel.position(end);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+
+        ActivityJournal journal = new ActivityJournal(path, logger, channel);
+        strings.forEach((id, value) -> {
+            if (id > NULL_ID) {
+                journal.interned.put(value, id);
+                journal.nextId = Math.max(journal.nextId, id + 1);
+            }
+        });
+        return journal;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public synchronized void append(ActivityLog activity) {
+        if (failed) {
+            return;
+        }
+
+        try {
+            int detailsId = stringId(activity.rawDetails(), SCRATCH_DETAILS_ID);
+            int worldId = worldId(activity.getPosition(), SCRATCH_WORLD_ID);
+            int originWorldId = worldId(activity.getOrigin(), SCRATCH_ORIGIN_WORLD_ID);
+
+            ensureCapacity(ENTRY_RECORD_SIZE);
+            buffer.put(ENTRY_RECORD);
+            buffer.putLong(activity.getTimestamp().toEpochMilli());
+            buffer.put((byte) activity.getType().ordinal());
+            buffer.putInt(detailsId);
+            buffer.putInt(worldId);
+            buffer.putLong(activity.getPosition() == null ? 0 : activity.getPosition().coordinates());
+            buffer.putInt(originWorldId);
+            buffer.putLong(activity.getOrigin() == null ? 0 : activity.getOrigin().coordinates());
+            buffer.putInt(activity.getRepeats());
+        } catch (IOException e) {
+            failed = true;
+            logger.log(Level.WARNING, "Activity journal " + path.getFileName() + " is no longer writable", e);
+        }
+    }
+
+    public synchronized void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Streams every journaled activity in the order it was logged
+     */
+    public synchronized void forEach(Consumer<ActivityLog> consumer) throws IOException {
+        if (channel.isOpen()) {
+            flush();
+        }
+
+        read(path, new HashMap<>(), consumer);
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (!channel.isOpen()) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+
+    public void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * Reads every complete record and returns the offset just past the last one; a torn record at the end is ignored
+     */
+    private static long read(Path path, Map<Integer, String> strings, Consumer<ActivityLog> consumer) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                Channels.newInputStream(FileChannel.open(path, StandardOpenOption.READ)), BUFFER_SIZE))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not an activity journal: " + path.getFileName());
+            }
+
+            long offset = Integer.BYTES;
+            while (true) {
+                int tag;
+                try {
+                    tag = in.readByte();
+                } catch (EOFException e) {
+                    return offset;
+                }
+
+                try {
+                    if (tag == STRING_RECORD) {
+                        int id = in.readInt();
+                        byte[] bytes = new byte[in.readInt()];
+                        in.readFully(bytes);
+                        strings.put(id, new String(bytes, StandardCharsets.UTF_8));
+                        offset += 1 + 4 + 4 + bytes.length;
+                    } else if (tag == ENTRY_RECORD) {
+                        Instant timestamp = Instant.ofEpochMilli(in.readLong());
+                        ActivityType type = TYPES[in.readByte()];
+                        String details = strings.get(in.readInt());
+                        PackedLocation position = readLocation(in, strings);
+                        PackedLocation origin = readLocation(in, strings);
+                        int repeats = in.readInt();
+                        consumer.accept(new ActivityLog(timestamp, type, details, position, origin, repeats));
+                        offset += ENTRY_RECORD_SIZE;
+                    } else {
+                        throw new IOException("Corrupted activity journal " + path.getFileName() + ": unknown record " + tag);
+                    }
+                } catch (EOFException e) {
+                    return offset;
+                }
+            }
+        }
+    }
+
+    private int worldId(PackedLocation location, int scratchId) throws IOException {
+        if (location == null) {
+            return NULL_ID;
+        }
+        if (location.world() < 0) {
+            return UNKNOWN_WORLD_ID;
+        }
+        return stringId(location.worldName(), scratchId);
+    }
+
+    private static PackedLocation readLocation(DataInputStream in, Map<Integer, String> strings) throws IOException {
+        int worldId = in.readInt();
+        long coordinates = in.readLong();
+        if (worldId == NULL_ID) {
+            return null;
+        }
+        String worldName = strings.get(worldId);
+        if (worldId == UNKNOWN_WORLD_ID || worldName == null) {
+            return PackedLocation.UNKNOWN;
+        }
+        return PackedLocation.of(worldName, coordinates);
+    }
+
+    private int stringId(String value, int scratchId) throws IOException {
+        if (value == null) {
+            return NULL_ID;
+        }
+
+        Integer id = interned.get(value);
+        if (id != null) {
+            return id;
+        }
+
+        int newId = scratchId;
+        if (interned.size() < MAX_INTERNED_STRINGS) {
+            newId = nextId++;
+            interned.put(value, newId);
+        }
+        writeString(newId, value);
+        return newId;
+    }
+
+    private void writeString(int id, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        int recordSize = 1 + 4 + 4 + bytes.length;
+
+        if (recordSize > BUFFER_SIZE) {
+            flush();
+            ByteBuffer record = ByteBuffer.allocate(recordSize);
+            record.put(STRING_RECORD).putInt(id).putInt(bytes.length).put(bytes).flip();
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            return;
+        }
+
+        ensureCapacity(recordSize);
+        buffer.put(STRING_RECORD);
+        buffer.putInt(id);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private void ensureCapacity(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
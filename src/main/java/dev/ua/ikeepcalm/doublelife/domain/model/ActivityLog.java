@@ -5,6 +5,7 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 
 import java.time.Instant;
+import java.util.Objects;
 
 @Data
 @AllArgsConstructor
@@ -12,12 +13,48 @@ public class ActivityLog {
     private final Instant timestamp;
     private final ActivityType type;
     private final String details;
-    private final String location;
-    
-    public ActivityLog(ActivityType type, String details, String location) {
-        this.timestamp = Instant.now();
-        this.type = type;
-        this.details = details;
-        this.location = location;
+    private final PackedLocation position;
+    // Where a teleport started; rendered into the details
+    private final PackedLocation origin;
+    // How many identical consecutive events this entry stands for
+    private final int repeats;
+
+    public ActivityLog(ActivityType type, String details, PackedLocation position) {
+        this(Instant.now(), type, details, position, null, 1);
+    }
+
+    public ActivityLog(ActivityType type, String details, PackedLocation origin, PackedLocation position) {
+        this(Instant.now(), type, details, position, origin, 1);
+    }
+
+    public String getDetails() {
+        String rendered = origin == null ? details : details + ": " + origin + " -> " + position;
+        return repeats > 1 ? rendered + " ×" + repeats : rendered;
+    }
+
+    /**
+     * Whether the other activity repeats this one and can be merged into it
+     */
+    public boolean isRepeatedBy(ActivityLog other) {
+        return type == other.type && Objects.equals(details, other.details)
+                && Objects.equals(position, other.position) && Objects.equals(origin, other.origin);
+    }
+
+    public ActivityLog withRepeats(int repeats) {
+        return new ActivityLog(timestamp, type, details, position, origin, repeats);
+    }
+
+    /**
+     * Details as logged, without the teleport origin
+     */
+    String rawDetails() {
+        return details;
+    }
+
+    /**
+     * The location rendered as text, or null if the activity has none
+     */
+    public String getLocation() {
+        return position == null ? null : position.toString();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package dev.ua.ikeepcalm.doublelife.domain.model;
+
+import dev.ua.ikeepcalm.doublelife.domain.model.source.ActivityType;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-type token buckets for activity logging. A type with a limit may log that many events per second, with a burst
+ * of the same size; types without a limit are never throttled. Callers synchronize on the owning session.
+ */
+public class ActivityThrottle {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final int[] limits = new int[ActivityType.values().length];
+    private final double[] tokens = new double[limits.length];
+    private final long[] lastRefill = new long[limits.length];
+
+    public ActivityThrottle(Map<ActivityType, Integer> eventsPerSecond) {
+        long now = System.nanoTime();
+        eventsPerSecond.forEach((type, limit) -> {
+            limits[type.ordinal()] = limit;
+            tokens[type.ordinal()] = limit;
+            lastRefill[type.ordinal()] = now;
+        });
+    }
+
+    public boolean tryAcquire(ActivityType type) {
+        int index = type.ordinal();
+        int limit = limits[index];
+        if (limit <= 0) {
+            return true;
+        }
+
+        long now = System.nanoTime();
+        tokens[index] = Math.min(limit, tokens[index] + (double) (now - lastRefill[index]) * limit / NANOS_PER_SECOND);
+        lastRefill[index] = now;
+        if (tokens[index] < 1) {
+            return false;
+        }
+        tokens[index]--;
+        return true;
+    }
+}
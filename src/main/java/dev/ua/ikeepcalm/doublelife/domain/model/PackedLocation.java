@@ -0,0 +1,77 @@
+package dev.ua.ikeepcalm.doublelife.domain.model;
+
+import org.bukkit.Location;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Block position of a logged activity: an index into the world name table plus the block coordinates packed into
+ * one long (26 bits x, 26 bits z, 12 bits y, the same layout Minecraft uses). Text is only produced when a log is
+ * rendered.
+ */
+public record PackedLocation(int world, long coordinates) {
+
+    public static final PackedLocation UNKNOWN = new PackedLocation(-1, 0);
+
+    private static final Map<String, Integer> WORLD_INDEX = new ConcurrentHashMap<>();
+    private static final List<String> WORLD_NAMES = new CopyOnWriteArrayList<>();
+
+    public static PackedLocation of(Location location) {
+        if (location == null || location.getWorld() == null) {
+            return UNKNOWN;
+        }
+        return of(location.getWorld().getName(), location.getBlockX(), location.getBlockY(), location.getBlockZ());
+    }
+
+    public static PackedLocation of(String worldName, int x, int y, int z) {
+        return new PackedLocation(worldIndex(worldName), pack(x, y, z));
+    }
+
+    static PackedLocation of(String worldName, long coordinates) {
+        return new PackedLocation(worldIndex(worldName), coordinates);
+    }
+
+    public String worldName() {
+        return world < 0 ? null : WORLD_NAMES.get(world);
+    }
+
+    public int x() {
+        return (int) (coordinates >> 38);
+    }
+
+    public int y() {
+        return (int) (coordinates << 52 >> 52);
+    }
+
+    public int z() {
+        return (int) (coordinates << 26 >> 38);
+    }
+
+    @Override
+    public String toString() {
+        if (world < 0) {
+            return "Unknown";
+        }
+        return worldName() + " [" + x() + ", " + y() + ", " + z() + "]";
+    }
+
+    private static long pack(int x, int y, int z) {
+        return ((long) x & 0x3FFFFFF) << 38 | ((long) z & 0x3FFFFFF) << 12 | (long) y & 0xFFF;
+    }
+
+    private static int worldIndex(String worldName) {
+        Integer index = WORLD_INDEX.get(worldName);
+        if (index != null) {
+            return index;
+        }
+        synchronized (WORLD_NAMES) {
+            return WORLD_INDEX.computeIfAbsent(worldName, name -> {
+                WORLD_NAMES.add(name);
+                return WORLD_NAMES.size() - 1;
+            });
+        }
+    }
+}
@@ -25,14 +25,19 @@ import java.util.Map;
 @Builder
 public class PlayerState implements ConfigurationSerializable {
 
+    private static final String ITEM_STORAGE_SIDECAR = "binary";
+
     // Transient fields used when working with runtime Player objects
     private transient ItemStack[] inventory;
     private transient ItemStack[] armor;
     private transient ItemStack offHand;
     private transient Collection<PotionEffect> potionEffects;
     private transient Location location;
+    // Set when the item contents are persisted in the binary sidecar instead of the Base64 fields
+    private transient boolean itemsInSidecar;
 
-    // Serializable string representations for persistence
+    // Serializable string representations for persistence; the Base64 item fields are only populated for
+    // sessions loaded from files written by older versions
     private String serializedInventory;
     private String serializedArmor;
     private String serializedOffHand;
@@ -70,7 +75,8 @@ public class PlayerState implements ConfigurationSerializable {
         // Store runtime objects
         builder.inventory(player.getInventory().getStorageContents().clone());
         builder.armor(player.getInventory().getArmorContents().clone());
-        builder.offHand(player.getInventory().getItemInOffHand().clone());
+        ItemStack offHand = player.getInventory().getItemInOffHand();
+        builder.offHand(offHand != null ? offHand.clone() : null);
         builder.potionEffects(player.getActivePotionEffects());
         builder.location(player.getLocation().clone());
 
@@ -85,10 +91,7 @@ public class PlayerState implements ConfigurationSerializable {
             builder.pitch(loc.getPitch());
         }
 
-        builder.serializedInventory(serializeItemStackArray(player.getInventory().getStorageContents()));
-        builder.serializedArmor(serializeItemStackArray(player.getInventory().getArmorContents()));
-        builder.serializedOffHand(serializeItemStack(player.getInventory().getItemInOffHand()));
-
+        // Item contents are encoded only when the state is actually persisted, see serialize() and PlayerStateCodec
         Map<String, Integer> effects = new HashMap<>();
         for (PotionEffect effect : player.getActivePotionEffects()) {
             effects.put(effect.getType().getName(), effect.getDuration());
@@ -103,9 +106,9 @@ public class PlayerState implements ConfigurationSerializable {
      */
     public void restore(Player player) {
         // Use runtime objects if available, otherwise deserialize
-        ItemStack[] inventoryToRestore = inventory != null ? inventory : deserializeItemStackArray(serializedInventory);
-        ItemStack[] armorToRestore = armor != null ? armor : deserializeItemStackArray(serializedArmor);
-        ItemStack offHandToRestore = offHand != null ? offHand : deserializeItemStack(serializedOffHand);
+        ItemStack[] inventoryToRestore = resolveInventory();
+        ItemStack[] armorToRestore = resolveArmor();
+        ItemStack offHandToRestore = resolveOffHand();
         Collection<PotionEffect> effectsToRestore = potionEffects != null ? potionEffects : deserializePotionEffects();
         Location locationToRestore = location != null ? location : deserializeLocation();
 
@@ -131,6 +134,18 @@ public class PlayerState implements ConfigurationSerializable {
         player.setFlying(isFlying);
     }
 
+    ItemStack[] resolveInventory() {
+        return inventory != null ? inventory : deserializeItemStackArray(serializedInventory);
+    }
+
+    ItemStack[] resolveArmor() {
+        return armor != null ? armor : deserializeItemStackArray(serializedArmor);
+    }
+
+    ItemStack resolveOffHand() {
+        return offHand != null ? offHand : deserializeItemStack(serializedOffHand);
+    }
+
     private static String serializeItemStack(ItemStack item) {
         if (item == null) return null;
         try {
@@ -213,9 +228,14 @@ public class PlayerState implements ConfigurationSerializable {
     public Map<String, Object> serialize() {
         Map<String, Object> map = new HashMap<>();
 
-        map.put("serializedInventory", serializedInventory);
-        map.put("serializedArmor", serializedArmor);
-        map.put("serializedOffHand", serializedOffHand);
+        if (itemsInSidecar) {
+            map.put("itemStorage", ITEM_STORAGE_SIDECAR);
+        } else {
+            // The runtime copies are authoritative; the Base64 fields only exist for states loaded from legacy files
+            map.put("serializedInventory", inventory != null ? serializeItemStackArray(inventory) : serializedInventory);
+            map.put("serializedArmor", armor != null ? serializeItemStackArray(armor) : serializedArmor);
+            map.put("serializedOffHand", offHand != null ? serializeItemStack(offHand) : serializedOffHand);
+        }
         map.put("level", level);
         map.put("experience", experience);
         map.put("foodLevel", foodLevel);
@@ -242,6 +262,7 @@ public class PlayerState implements ConfigurationSerializable {
         builder.serializedInventory((String) map.get("serializedInventory"));
         builder.serializedArmor((String) map.get("serializedArmor"));
         builder.serializedOffHand((String) map.get("serializedOffHand"));
+        builder.itemsInSidecar(ITEM_STORAGE_SIDECAR.equals(map.get("itemStorage")));
         builder.level((Integer) map.getOrDefault("level", 0));
         builder.experience(((Number) map.getOrDefault("experience", 0.0f)).floatValue());
         builder.foodLevel((Integer) map.getOrDefault("foodLevel", 20));
@@ -0,0 +1,101 @@
+package dev.ua.ikeepcalm.doublelife.domain.model;
+
+import org.bukkit.inventory.ItemStack;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Versioned binary snapshot of the item contents of a {@link PlayerState}, stored as a sidecar .bin file next to the
+ * session YAML. Layout: magic, version, flags, then length-prefixed records of Paper's native item bytes, optionally
+ * deflate-compressed as a whole. Unknown record types are skipped so newer files stay readable by older readers.
+ */
+public final class PlayerStateCodec {
+
+    private static final int MAGIC = 0x444C5053; // "DLPS"
+    private static final int VERSION = 1;
+    private static final int FLAG_COMPRESSED = 1;
+
+    private static final int RECORD_INVENTORY = 1;
+    private static final int RECORD_ARMOR = 2;
+    private static final int RECORD_OFF_HAND = 3;
+
+    private PlayerStateCodec() {
+    }
+
+    public static byte[] encode(PlayerState state, boolean compress) throws IOException {
+        return encode(
+                ItemStack.serializeItemsAsBytes(state.resolveInventory()),
+                ItemStack.serializeItemsAsBytes(state.resolveArmor()),
+                ItemStack.serializeItemsAsBytes(state.resolveOffHand()),
+                compress);
+    }
+
+    static byte[] encode(byte[] inventory, byte[] armor, byte[] offHand, boolean compress) throws IOException {
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream(inventory.length + armor.length + offHand.length + 32);
+        DataOutputStream header = new DataOutputStream(snapshot);
+        header.writeInt(MAGIC);
+        header.writeByte(VERSION);
+        header.writeByte(compress ? FLAG_COMPRESSED : 0);
+
+        try (DataOutputStream out = new DataOutputStream(compress ? new DeflaterOutputStream(snapshot) : snapshot)) {
+            writeRecord(out, RECORD_INVENTORY, inventory);
+            writeRecord(out, RECORD_ARMOR, armor);
+            writeRecord(out, RECORD_OFF_HAND, offHand);
+        }
+        return snapshot.toByteArray();
+    }
+
+    /**
+     * Loads the item contents of an encoded snapshot into the runtime fields of the given state
+     */
+    public static void decode(PlayerState state, byte[] snapshot) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a player state snapshot");
+            }
+
+            int version = in.readUnsignedByte();
+            if (version > VERSION) {
+                throw new IOException("Unsupported player state snapshot version " + version);
+            }
+
+            int flags = in.readUnsignedByte();
+            try (InputStream body = (flags & FLAG_COMPRESSED) != 0 ? new InflaterInputStream(in) : in) {
+                readRecords(state, new DataInputStream(body));
+            }
+        }
+    }
+
+    private static void readRecords(PlayerState state, DataInputStream in) throws IOException {
+        int type;
+        while ((type = in.read()) != -1) {
+            byte[] data = new byte[in.readInt()];
+            in.readFully(data);
+
+            switch (type) {
+                case RECORD_INVENTORY -> state.setInventory(ItemStack.deserializeItemsFromBytes(data));
+                case RECORD_ARMOR -> state.setArmor(ItemStack.deserializeItemsFromBytes(data));
+                case RECORD_OFF_HAND -> {
+                    ItemStack[] offHand = ItemStack.deserializeItemsFromBytes(data);
+                    state.setOffHand(offHand.length > 0 ? offHand[0] : null);
+                }
+                default -> {
+                    // Written by a newer version, nothing to restore from it here
+                }
+            }
+        }
+    }
+
+    private static void writeRecord(DataOutputStream out, int type, byte[] data) throws IOException {
+        out.writeByte(type);
+        out.writeInt(data.length);
+        out.write(data);
+    }
+}
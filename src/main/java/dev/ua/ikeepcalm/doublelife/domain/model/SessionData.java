@@ -3,18 +3,26 @@ package dev.ua.ikeepcalm.doublelife.domain.model;
 import dev.ua.ikeepcalm.doublelife.domain.model.source.ActivityType;
 import dev.ua.ikeepcalm.doublelife.domain.model.source.DoubleLifeMode;
 import lombok.Getter;
+import org.bukkit.Location;
 import org.bukkit.configuration.serialization.ConfigurationSerializable;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.logging.Logger;
 
 /**
  * Represents a DoubleLife admin session with state management and persistence support.
@@ -26,17 +34,32 @@ public class SessionData implements ConfigurationSerializable {
     private final UUID playerId;
     private final PlayerState savedState;
     private Instant startTime;
-    private Instant endTime;
-    private final List<ActivityLog> activities;
+    private volatile Instant endTime;
     private final DoubleLifeMode mode;
-    private long extensionMinutes = 0;
+    // Read by the checkpoint thread
+    private volatile long extensionMinutes = 0;
+
+    // Full history lives in the journal; only the most recent entries and per-type counts stay on heap
+    private static final int RECENT_ACTIVITY_LIMIT = 32;
+    private final Deque<ActivityLog> recentActivities = new ArrayDeque<>(RECENT_ACTIVITY_LIMIT);
+    private final int[] activityCounts = new int[ActivityType.values().length];
+    private int activityCount;
+    private ActivityJournal journal;
+    // File name of the journal, kept in checkpoints so a restored session continues the same file
+    private String journalName;
+
+    // Identical consecutive activities are merged into one run; events over the type's rate limit are only counted
+    private ActivityThrottle throttle;
+    private ActivityLog currentRun;
+    private int currentRunLength;
+    private final int[] mergedCounts = new int[ActivityType.values().length];
+    private final int[] droppedCounts = new int[ActivityType.values().length];
 
     public SessionData(UUID playerId, PlayerState savedState, DoubleLifeMode mode) {
         this.playerId = playerId;
         this.savedState = savedState;
         this.mode = mode;
         this.startTime = Instant.now();
-        this.activities = new ArrayList<>();
     }
 
     public SessionData(UUID playerId, PlayerState savedState, DoubleLifeMode mode, LocalDateTime startTime) {
@@ -44,7 +67,6 @@ public class SessionData implements ConfigurationSerializable {
         this.savedState = savedState;
         this.mode = mode;
         this.startTime = startTime.atZone(ZoneId.systemDefault()).toInstant();
-        this.activities = new ArrayList<>();
     }
 
     public SessionData(UUID playerId, PlayerState savedState, DoubleLifeMode mode, LocalDateTime startTime, long extensionMinutes) {
@@ -52,16 +74,151 @@ public class SessionData implements ConfigurationSerializable {
         this.savedState = savedState;
         this.mode = mode;
         this.startTime = startTime.atZone(ZoneId.systemDefault()).toInstant();
-        this.activities = new ArrayList<>();
         this.extensionMinutes = extensionMinutes;
     }
 
-    public void logActivity(ActivityLog activity) {
-        activities.add(activity);
+    public synchronized void logActivity(ActivityLog activity) {
+        int type = activity.getType().ordinal();
+        activityCount++;
+        activityCounts[type]++;
+
+        if (currentRun != null && currentRun.isRepeatedBy(activity)) {
+            currentRunLength++;
+            mergedCounts[type]++;
+            return;
+        }
+        if (throttle != null && !throttle.tryAcquire(activity.getType())) {
+            droppedCounts[type]++;
+            return;
+        }
+
+        endRun();
+        currentRun = activity;
+        currentRunLength = 1;
+    }
+
+    public void logActivity(ActivityType type, String details, PackedLocation location) {
+        logActivity(new ActivityLog(type, details, location));
+    }
+
+    public void attachJournal(ActivityJournal journal) {
+        this.journal = journal;
+        this.journalName = journal.getPath().getFileName().toString();
+    }
+
+    /**
+     * Reopens the journal of a restored session and counts the activities it already holds
+     */
+    public void resumeJournal(Path path, Logger logger) throws IOException {
+        attachJournal(ActivityJournal.resume(path, logger, this::replay));
     }
 
-    public void logActivity(ActivityType type, String details, String location) {
-        activities.add(new ActivityLog(type, details, location));
+    /**
+     * Writes out the pending run and closes the journal, used when the server stops with the session still active
+     */
+    public synchronized void closeJournal() throws IOException {
+        endRun();
+        if (journal != null) {
+            journal.close();
+        }
+    }
+
+    private synchronized void replay(ActivityLog activity) {
+        int type = activity.getType().ordinal();
+        activityCount += activity.getRepeats();
+        activityCounts[type] += activity.getRepeats();
+        mergedCounts[type] += activity.getRepeats() - 1;
+
+        if (recentActivities.size() == RECENT_ACTIVITY_LIMIT) {
+            recentActivities.removeFirst();
+        }
+        recentActivities.addLast(activity);
+    }
+
+    public synchronized void attachThrottle(ActivityThrottle throttle) {
+        this.throttle = throttle;
+    }
+
+    private void endRun() {
+        if (currentRun == null) {
+            return;
+        }
+
+        ActivityLog activity = currentRunLength > 1 ? currentRun.withRepeats(currentRunLength) : currentRun;
+        currentRun = null;
+
+        if (recentActivities.size() == RECENT_ACTIVITY_LIMIT) {
+            recentActivities.removeFirst();
+        }
+        recentActivities.addLast(activity);
+
+        if (journal != null) {
+            journal.append(activity);
+        }
+    }
+
+    /**
+     * Captures an immutable copy of this session for off-thread log writing
+     */
+    public synchronized SessionSnapshot snapshot(String playerName) {
+        endRun();
+        SessionSnapshot.SessionSnapshotBuilder builder = SessionSnapshot.builder()
+                .playerId(playerId)
+                .playerName(playerName)
+                .mode(mode)
+                .startTime(getStartTime())
+                .endTime(endTime)
+                .duration(getDuration())
+                .activityCount(activityCount)
+                .activityCounts(Collections.unmodifiableMap(getActivityCounts()))
+                .mergedCounts(Collections.unmodifiableMap(countsByType(mergedCounts)))
+                .droppedCounts(Collections.unmodifiableMap(countsByType(droppedCounts)))
+                .recentActivities(List.copyOf(recentActivities))
+                .journal(journal)
+                .savedLocation("Unknown");
+
+        if (savedState != null) {
+            Location location = savedState.getLocation();
+            if (location != null && location.getWorld() != null) {
+                builder.savedLocation(location.getWorld().getName() + " [" + location.getBlockX() + ", "
+                        + location.getBlockY() + ", " + location.getBlockZ() + "]");
+            }
+            builder.savedGameMode(savedState.getGameMode())
+                    .savedLevel(savedState.getLevel())
+                    .savedHealth(savedState.getHealth())
+                    .savedFoodLevel(savedState.getFoodLevel());
+        }
+
+        return builder.build();
+    }
+
+    public synchronized int getActivityCount() {
+        return activityCount;
+    }
+
+    /**
+     * Returns up to the last few activities, oldest first
+     */
+    public synchronized List<ActivityLog> getRecentActivities() {
+        List<ActivityLog> activities = new ArrayList<>(recentActivities);
+        if (currentRun != null) {
+            activities.add(currentRunLength > 1 ? currentRun.withRepeats(currentRunLength) : currentRun);
+        }
+        return activities;
+    }
+
+    public synchronized Map<ActivityType, Integer> getActivityCounts() {
+        return countsByType(activityCounts);
+    }
+
+    private static Map<ActivityType, Integer> countsByType(int[] countsByOrdinal) {
+        Map<ActivityType, Integer> counts = new EnumMap<>(ActivityType.class);
+        for (ActivityType type : ActivityType.values()) {
+            if (countsByOrdinal[type.ordinal()] > 0) {
+                counts.put(type, countsByOrdinal[type.ordinal()]);
+            }
+        }
+        return counts;
     }
 
     public Duration getDuration() {
@@ -104,6 +261,9 @@ public class SessionData implements ConfigurationSerializable {
         }
         map.put("mode", mode.name());
         map.put("extensionMinutes", extensionMinutes);
+        if (journalName != null) {
+            map.put("journal", journalName);
+        }
 
         if (savedState != null) {
             map.put("savedState", savedState);
@@ -140,6 +300,8 @@ public class SessionData implements ConfigurationSerializable {
 
             SessionData session = new SessionData(playerId, savedState, mode, startTime, extensionMinutes);
 
+            session.journalName = (String) map.get("journal");
+
             // Restore endTime if present (though typically only active sessions are saved)
             String endTimeStr = (String) map.get("endTime");
             if (endTimeStr != null) {
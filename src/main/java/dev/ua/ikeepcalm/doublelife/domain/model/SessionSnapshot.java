@@ -0,0 +1,67 @@
+package dev.ua.ikeepcalm.doublelife.domain.model;
+
+import dev.ua.ikeepcalm.doublelife.domain.model.source.ActivityType;
+import dev.ua.ikeepcalm.doublelife.domain.model.source.DoubleLifeMode;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Immutable view of an ended session, safe to hand over to background log writing and webhooks.
+ */
+@Getter
+@Builder
+public class SessionSnapshot {
+
+    private final UUID playerId;
+    private final String playerName;
+    private final DoubleLifeMode mode;
+    private final LocalDateTime startTime;
+    private final Instant endTime;
+    private final Duration duration;
+
+    private final int activityCount;
+    private final Map<ActivityType, Integer> activityCounts;
+    private final List<ActivityLog> recentActivities;
+    // Events folded into a repeated entry, and events over the rate limit that were only counted
+    private final Map<ActivityType, Integer> mergedCounts;
+    private final Map<ActivityType, Integer> droppedCounts;
+
+    private final String savedLocation;
+    private final String savedGameMode;
+    private final int savedLevel;
+    private final double savedHealth;
+    private final int savedFoodLevel;
+
+    @Getter(AccessLevel.NONE)
+    private final ActivityJournal journal;
+
+    /**
+     * Streams the complete activity history of the session
+     */
+    public void forEachActivity(Consumer<ActivityLog> consumer) throws IOException {
+        if (journal != null) {
+            journal.forEach(consumer);
+        } else {
+            recentActivities.forEach(consumer);
+        }
+    }
+
+    /**
+     * Removes the backing journal once the log no longer needs it
+     */
+    public void discardJournal() throws IOException {
+        if (journal != null) {
+            journal.delete();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package dev.ua.ikeepcalm.doublelife.domain.service;
+
+import dev.ua.ikeepcalm.doublelife.DoubleLife;
+import dev.ua.ikeepcalm.doublelife.domain.model.PackedLocation;
+import dev.ua.ikeepcalm.doublelife.domain.model.SessionData;
+import dev.ua.ikeepcalm.doublelife.domain.model.source.ActivityType;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Aggregates block placements and breaks per player into one activity per type and flush period.
+ * Counts are kept per material ordinal in primitive arrays, together with the packed position of the first block,
+ * so no Block (and with it no chunk) is retained between events. Block events, the flush timer and session ends all
+ * run on the main thread, which is the only thread that touches this class.
+ */
+public class BlockActivityAggregator {
+
+    private static final long FLUSH_PERIOD = 20L;
+    private static final Material[] MATERIALS = Material.values();
+
+    private final Map<UUID, PlayerBlocks> pending = new HashMap<>();
+    private final BukkitTask task;
+
+    public BlockActivityAggregator(DoubleLife plugin) {
+        this.task = Bukkit.getScheduler().runTaskTimer(plugin, this::flushAll, FLUSH_PERIOD, FLUSH_PERIOD);
+    }
+
+    public void add(UUID playerId, SessionData session, Material material, PackedLocation location, boolean place) {
+        PlayerBlocks blocks = pending.get(playerId);
+        if (blocks == null || blocks.session != session) {
+            if (blocks != null) {
+                blocks.flush();
+            }
+            blocks = new PlayerBlocks(session);
+            pending.put(playerId, blocks);
+        }
+        (place ? blocks.placed : blocks.broken).add(material, location);
+    }
+
+    /**
+     * Logs whatever the player has pending; called before the session is ended so the last partial batch is kept
+     */
+    public void flush(UUID playerId) {
+        PlayerBlocks blocks = pending.remove(playerId);
+        if (blocks != null) {
+            blocks.flush();
+        }
+    }
+
+    public void stop() {
+        task.cancel();
+        pending.values().forEach(PlayerBlocks::flush);
+        pending.clear();
+    }
+
+    private void flushAll() {
+        Iterator<PlayerBlocks> iterator = pending.values().iterator();
+        while (iterator.hasNext()) {
+            PlayerBlocks blocks = iterator.next();
+            if (blocks.isEmpty()) {
+                // Idle for a whole period; drop the arrays until the player builds again
+                iterator.remove();
+            } else {
+                blocks.flush();
+            }
+        }
+    }
+
+    private static final class PlayerBlocks {
+        private final SessionData session;
+        private final Counts placed = new Counts(ActivityType.BLOCK_PLACE);
+        private final Counts broken = new Counts(ActivityType.BLOCK_BREAK);
+
+        private PlayerBlocks(SessionData session) {
+            this.session = session;
+        }
+
+        private boolean isEmpty() {
+            return placed.isEmpty() && broken.isEmpty();
+        }
+
+        private void flush() {
+            placed.flush(session);
+            broken.flush(session);
+        }
+    }
+
+    private static final class Counts {
+        private final ActivityType type;
+        private final int[] counts = new int[MATERIALS.length];
+        private final BitSet used = new BitSet(MATERIALS.length);
+        private PackedLocation firstLocation;
+
+        private Counts(ActivityType type) {
+            this.type = type;
+        }
+
+        private void add(Material material, PackedLocation location) {
+            int ordinal = material.ordinal();
+            counts[ordinal]++;
+            used.set(ordinal);
+            if (firstLocation == null) {
+                firstLocation = location;
+            }
+        }
+
+        private boolean isEmpty() {
+            return firstLocation == null;
+        }
+
+        private void flush(SessionData session) {
+            if (isEmpty()) {
+                return;
+            }
+
+            StringBuilder details = new StringBuilder();
+            for (int ordinal = used.nextSetBit(0); ordinal >= 0; ordinal = used.nextSetBit(ordinal + 1)) {
+                if (!details.isEmpty()) details.append(", ");
+                details.append(MATERIALS[ordinal].name()).append(" x").append(counts[ordinal]);
+                counts[ordinal] = 0;
+            }
+            session.logActivity(type, details.toString(), firstLocation);
+
+            used.clear();
+            firstLocation = null;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package dev.ua.ikeepcalm.doublelife.domain.service;
+
+import dev.ua.ikeepcalm.doublelife.DoubleLife;
+import dev.ua.ikeepcalm.doublelife.domain.model.SessionData;
+import dev.ua.ikeepcalm.doublelife.domain.model.source.DoubleLifeMode;
+import dev.ua.ikeepcalm.doublelife.util.ComponentUtil;
+import net.kyori.adventure.bossbar.BossBar;
+import net.kyori.adventure.text.Component;
+import org.bukkit.entity.Player;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Renders session boss bars with memoized titles and only pushes the properties that actually changed.
+ */
+public class BossBarRenderer {
+
+    private static final int MAX_CACHED_TITLES = 512;
+
+    private final DoubleLife plugin;
+    private final Map<TitleKey, Component> titles = new ConcurrentHashMap<>();
+    private final Map<UUID, SentState> lastSent = new ConcurrentHashMap<>();
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+    private final LongAdder sentUpdates = new LongAdder();
+    private final LongAdder skippedUpdates = new LongAdder();
+
+    public BossBarRenderer(DoubleLife plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Remembers the state a freshly shown boss bar was created with
+     */
+    public void track(UUID playerId, BossBar bossBar) {
+        lastSent.put(playerId, new SentState(bossBar.name(), bossBar.progress(), bossBar.color()));
+    }
+
+    public void forget(UUID playerId) {
+        lastSent.remove(playerId);
+    }
+
+    public void render(Player player, BossBar bossBar, SessionData session) {
+        long elapsedMinutes = session.getDuration().toMinutes();
+        long totalAllowedMinutes = session.getTotalAllowedMinutes(plugin.getPluginConfig().getMaxDuration());
+        long remainingMinutes = totalAllowedMinutes - elapsedMinutes;
+
+        float progress = Math.max(0, Math.min(1, 1.0f - (float) elapsedMinutes / totalAllowedMinutes));
+        int colourStage = remainingMinutes <= 1 ? 2 : remainingMinutes <= 5 ? 1 : 0;
+        String language = plugin.getLangConfig().getPlayerLanguage(player);
+
+        Component title = title(new TitleKey(language, session.getMode(), remainingMinutes, colourStage));
+        SentState previous = lastSent.get(player.getUniqueId());
+        BossBar.Color color = colourStage == 2 ? BossBar.Color.RED
+                : colourStage == 1 ? BossBar.Color.PINK
+                : previous != null ? previous.color() : bossBar.color();
+
+        if (previous == null || !previous.title().equals(title)) {
+            bossBar.name(title);
+            sentUpdates.increment();
+        } else {
+            skippedUpdates.increment();
+        }
+
+        if (previous == null || previous.progress() != progress) {
+            bossBar.progress(progress);
+            sentUpdates.increment();
+        } else {
+            skippedUpdates.increment();
+        }
+
+        if (previous == null || previous.color() != color) {
+            bossBar.color(color);
+            sentUpdates.increment();
+        } else {
+            skippedUpdates.increment();
+        }
+
+        lastSent.put(player.getUniqueId(), new SentState(title, progress, color));
+    }
+
+    /**
+     * Drops memoized titles, e.g. after language files were reloaded
+     */
+    public void invalidate() {
+        titles.clear();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    public long getSentUpdates() {
+        return sentUpdates.sum();
+    }
+
+    public long getSkippedUpdates() {
+        return skippedUpdates.sum();
+    }
+
+    private Component title(TitleKey key) {
+        Component cached = titles.get(key);
+        if (cached != null) {
+            cacheHits.increment();
+            return cached;
+        }
+
+        cacheMisses.increment();
+        String titleText = plugin.getLangConfig().getMessage("bossbar.remaining-time", key.language(), key.remainingMinutes());
+        Component title = ComponentUtil.gradient(titleText, "#FFD700", "#FF6B35");
+
+        if (titles.size() >= MAX_CACHED_TITLES) {
+            titles.clear();
+        }
+        titles.put(key, title);
+        return title;
+    }
+
+    private record TitleKey(String language, DoubleLifeMode mode, long remainingMinutes, int colourStage) {
+    }
+
+    private record SentState(Component title, float progress, BossBar.Color color) {
+    }
+}
@@ -0,0 +1,432 @@
+package dev.ua.ikeepcalm.doublelife.domain.service;
+
+import dev.ua.ikeepcalm.doublelife.DoubleLife;
+import dev.ua.ikeepcalm.doublelife.domain.model.PlayerState;
+import dev.ua.ikeepcalm.doublelife.domain.model.PlayerStateCodec;
+import dev.ua.ikeepcalm.doublelife.domain.model.SessionData;
+import dev.ua.ikeepcalm.doublelife.util.AtomicFiles;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Keeps active sessions on disk as sessions/&lt;uuid&gt;.yml so they survive a crash, not only a clean shutdown, and
+ * hands them back when their owners join after a restart.
+ * Changed sessions are marked dirty and written by a background thread on an interval, so several changes to one
+ * session between two runs coalesce into a single write.
+ * Every file goes to a temp file, is forced to disk and atomically renamed over the previous one. The item sidecar is
+ * written first; the YAML records its checksum and a sequence number and acts as the commit record.
+ */
+public class CheckpointService {
+
+    private static final String SESSIONS_FOLDER = "sessions";
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+    private static final int LOADER_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+    private final DoubleLife plugin;
+    private final Function<UUID, SessionData> sessions;
+    private final Path folder;
+    private final ScheduledExecutorService executor;
+    private final ExecutorService loader;
+
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    // Saved items never change during a session, so each sidecar is written once and only its checksum is kept
+    private final Map<UUID, Long> writtenStates = new ConcurrentHashMap<>();
+    // Older files a recovered session was loaded from, removed once that session is done with
+    private final Map<UUID, List<Path>> recoveredFiles = new ConcurrentHashMap<>();
+    private final Map<UUID, List<PendingCheckpoint>> pending = new ConcurrentHashMap<>();
+    private volatile CompletableFuture<Void> indexed = CompletableFuture.completedFuture(null);
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis());
+    private volatile boolean closed;
+    private ScheduledFuture<?> flushTask;
+    private long intervalSeconds;
+
+    private final LongAdder writtenCheckpoints = new LongAdder();
+    private final LongAdder failedCheckpoints = new LongAdder();
+
+    public CheckpointService(DoubleLife plugin, Function<UUID, SessionData> sessions) {
+        this.plugin = plugin;
+        this.sessions = sessions;
+        this.folder = plugin.getDataFolder().toPath().resolve(SESSIONS_FOLDER);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DoubleLife-Checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.loader = Executors.newFixedThreadPool(LOADER_THREADS, runnable -> {
+            Thread thread = new Thread(runnable, "DoubleLife-SessionLoader");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            Files.createDirectories(folder);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to create sessions folder: " + e.getMessage());
+        }
+
+        updateInterval(plugin.getPluginConfig().getCheckpointIntervalSeconds());
+    }
+
+    /**
+     * Reschedules the background writer when the configured interval changes, for example after a reload
+     */
+    public synchronized void updateInterval(long seconds) {
+        if (closed || seconds == intervalSeconds) {
+            return;
+        }
+        if (flushTask != null) {
+            flushTask.cancel(false);
+        }
+        intervalSeconds = seconds;
+        flushTask = executor.scheduleWithFixedDelay(this::flushDirty, seconds, seconds, TimeUnit.SECONDS);
+    }
+
+    public void markDirty(UUID playerId) {
+        if (!closed) {
+            dirty.add(playerId);
+        }
+    }
+
+    /**
+     * Removes the checkpoint of a session that ended normally. Runs on the checkpoint thread so it is ordered after
+     * any write of the same session that is already in progress.
+     */
+    public void discard(UUID playerId) {
+        dirty.remove(playerId);
+        if (!closed) {
+            executor.execute(() -> deleteCheckpoint(playerId));
+        }
+    }
+
+    /**
+     * Stops the background writer, letting a running checkpoint finish. Checkpoints left on disk are final from here
+     * on; sessions ended afterwards keep theirs so they can be restored on the next start.
+     */
+    public void shutdown() {
+        closed = true;
+        loader.shutdownNow();
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Timed out waiting for the running session checkpoint");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes a session on the calling thread, used for the final save on shutdown
+     */
+    public boolean writeNow(SessionData session) {
+        try {
+            write(session);
+            return true;
+        } catch (Exception e) {
+            failedCheckpoints.increment();
+            plugin.getLogger().warning("Failed to save session for player " + session.getPlayerId() + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Indexes the sessions left on disk in the background. Only the small checkpoint header of each file is parsed
+     * here; the session itself is deserialized when its owner joins, see {@link #takePending(UUID)}.
+     */
+    public void indexPending() {
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+
+        try (Stream<Path> files = Files.list(folder)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(AtomicFiles.TEMP_SUFFIX)) {
+                    // Leftover of a write interrupted before its rename, the previous file is still intact
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(".yml")) {
+                    tasks.add(CompletableFuture.runAsync(() -> indexFile(file), loader));
+                }
+            }
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to scan saved sessions: " + e.getMessage());
+        }
+
+        indexed = CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).whenComplete((ignored, error) -> {
+            if (!pending.isEmpty()) {
+                plugin.getLogger().info("Indexed " + pending.size() + " pending sessions from YAML files");
+            }
+        });
+    }
+
+    /**
+     * Loads the pending session of a player, trying the newest checkpoint first and falling back to older ones that
+     * fail to load or whose item sidecar does not match. Completes with null when the player has none.
+     * Files stay in place until the session is restored and checkpointed again, or discarded.
+     */
+    public CompletableFuture<SessionData> takePending(UUID playerId) {
+        return indexed.thenApplyAsync(ignored -> {
+            List<PendingCheckpoint> candidates = pending.remove(playerId);
+            if (candidates == null) {
+                return null;
+            }
+
+            candidates.sort(Comparator.comparingLong(PendingCheckpoint::sequence).reversed());
+            List<Path> files = recoveredFiles.computeIfAbsent(playerId, id -> new CopyOnWriteArrayList<>());
+            for (PendingCheckpoint candidate : candidates) {
+                if (candidate.file() != null) {
+                    files.addAll(List.of(candidate.file(), stateFile(candidate.file())));
+                }
+            }
+
+            for (PendingCheckpoint candidate : candidates) {
+                SessionData session = candidate.session() != null ? candidate.session() : load(candidate.file());
+                if (session != null) {
+                    return session;
+                }
+            }
+            return null;
+        }, loader);
+    }
+
+    /**
+     * Puts back a pending session that could not be restored yet, for example because its owner left again
+     */
+    public void returnPending(SessionData session) {
+        pending.computeIfAbsent(session.getPlayerId(), id -> new CopyOnWriteArrayList<>())
+                .add(new PendingCheckpoint(null, Long.MAX_VALUE, session));
+    }
+
+    public int getPendingCheckpoints() {
+        return dirty.size();
+    }
+
+    public long getWrittenCheckpoints() {
+        return writtenCheckpoints.sum();
+    }
+
+    public long getFailedCheckpoints() {
+        return failedCheckpoints.sum();
+    }
+
+    private void flushDirty() {
+        for (UUID playerId : dirty) {
+            dirty.remove(playerId);
+
+            SessionData session = sessions.apply(playerId);
+            if (session == null) {
+                continue;
+            }
+
+            try {
+                write(session);
+            } catch (Exception e) {
+                failedCheckpoints.increment();
+                dirty.add(playerId);
+                plugin.getLogger().warning("Failed to checkpoint session for player " + playerId + ": " + e.getMessage());
+            }
+        }
+    }
+
+    private void write(SessionData session) throws IOException {
+        UUID playerId = session.getPlayerId();
+        PlayerState state = session.getSavedState();
+
+        Long stateChecksum = null;
+        if (state != null) {
+            stateChecksum = writtenStates.get(playerId);
+            if (stateChecksum == null) {
+                try {
+                    byte[] snapshot = PlayerStateCodec.encode(state, plugin.getPluginConfig().isPersistenceCompress());
+                    AtomicFiles.write(stateFile(sessionFile(playerId)), snapshot);
+                    stateChecksum = checksum(snapshot);
+                    writtenStates.put(playerId, stateChecksum);
+                    state.setItemsInSidecar(true);
+                } catch (IOException | RuntimeException e) {
+                    plugin.getLogger().warning("Failed to write binary player state for " + playerId +
+                        ", storing items inline instead: " + e.getMessage());
+                    state.setItemsInSidecar(false);
+                }
+            }
+        }
+
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.set("checkpoint.player-id", playerId.toString());
+        yaml.set("checkpoint.sequence", sequence.incrementAndGet());
+        yaml.set("checkpoint.saved-at", System.currentTimeMillis());
+        if (state != null && state.isItemsInSidecar()) {
+            yaml.set("checkpoint.state-checksum", stateChecksum);
+        }
+        yaml.set("session", session);
+
+        AtomicFiles.write(sessionFile(playerId), yaml.saveToString().getBytes(StandardCharsets.UTF_8));
+        writtenCheckpoints.increment();
+    }
+
+    private void indexFile(Path file) {
+        String name = file.getFileName().toString();
+        try {
+            UUID playerId;
+            PendingCheckpoint checkpoint;
+            try {
+                playerId = UUID.fromString(name.substring(0, name.length() - ".yml".length()));
+                checkpoint = new PendingCheckpoint(file, readHeader(file).getLong("checkpoint.sequence", 0), null);
+            } catch (IllegalArgumentException e) {
+                // Name-keyed file from an older version; the owner is only known after a full load
+                SessionData session = load(file);
+                if (session == null) {
+                    return;
+                }
+                playerId = session.getPlayerId();
+                checkpoint = new PendingCheckpoint(file, 0, session);
+            }
+
+            pending.computeIfAbsent(playerId, id -> new CopyOnWriteArrayList<>()).add(checkpoint);
+        } catch (Exception e) {
+            plugin.getLogger().warning("Failed to index session file " + name + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Parses only the checkpoint section, which is always written before the session itself
+     */
+    private static YamlConfiguration readHeader(Path file) throws IOException, InvalidConfigurationException {
+        StringBuilder header = new StringBuilder();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null && !line.startsWith("session:")) {
+                header.append(line).append('\n');
+            }
+        }
+
+        YamlConfiguration yaml = new YamlConfiguration();
+        yaml.loadFromString(header.toString());
+        return yaml;
+    }
+
+    private SessionData load(Path file) {
+        try {
+            YamlConfiguration yaml = new YamlConfiguration();
+            yaml.load(file.toFile());
+
+            Object sessionObj = yaml.get("session");
+            SessionData session = null;
+
+            if (sessionObj instanceof SessionData) {
+                session = (SessionData) sessionObj;
+            } else if (sessionObj instanceof Map) {
+                @SuppressWarnings("unchecked")
+                Map<String, Object> sessionMap = (Map<String, Object>) sessionObj;
+                session = SessionData.deserialize(sessionMap);
+            }
+
+            if (session == null) {
+                plugin.getLogger().warning("Failed to deserialize session from " + file.getFileName());
+                deleteQuietly(file);
+                deleteQuietly(stateFile(file));
+                return null;
+            }
+
+            PlayerState state = session.getSavedState();
+            if (state != null && state.isItemsInSidecar()) {
+                Path stateFile = stateFile(file);
+                if (!Files.exists(stateFile)) {
+                    plugin.getLogger().warning("Skipping " + file.getFileName() + ": its binary player state is missing");
+                    return null;
+                }
+
+                byte[] snapshot = Files.readAllBytes(stateFile);
+                // Files from before checkpointing carry no checksum
+                if (yaml.contains("checkpoint.state-checksum") && yaml.getLong("checkpoint.state-checksum") != checksum(snapshot)) {
+                    plugin.getLogger().warning("Skipping " + file.getFileName() + ": its binary player state does not match");
+                    return null;
+                }
+                PlayerStateCodec.decode(state, snapshot);
+            }
+
+            plugin.getLogger().info("Successfully loaded session from " + file.getFileName() +
+                " with " + (state != null ? "preserved" : "MISSING") + " player state");
+
+            return session;
+        } catch (Exception e) {
+            plugin.getLogger().severe("Failed to load session YAML from " + file.getFileName() + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    private void deleteCheckpoint(UUID playerId) {
+        writtenStates.remove(playerId);
+
+        Path sessionFile = sessionFile(playerId);
+        deleteQuietly(sessionFile);
+        deleteQuietly(stateFile(sessionFile));
+
+        List<Path> recovered = recoveredFiles.remove(playerId);
+        if (recovered != null) {
+            recovered.forEach(this::deleteQuietly);
+        }
+
+        // A new session may have started before this ran; make sure it gets written again
+        if (sessions.apply(playerId) != null) {
+            dirty.add(playerId);
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to delete " + file.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    private Path sessionFile(UUID playerId) {
+        return folder.resolve(playerId + ".yml");
+    }
+
+    /**
+     * Binary item snapshot stored next to a session file, see {@link PlayerStateCodec}
+     */
+    private static Path stateFile(Path sessionFile) {
+        String name = sessionFile.getFileName().toString();
+        return sessionFile.resolveSibling(name.substring(0, name.length() - ".yml".length()) + ".bin");
+    }
+
+    private static long checksum(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return crc.getValue();
+    }
+
+    /**
+     * A checkpoint file found at startup; the session is only set for files that had to be loaded to be indexed
+     */
+    private record PendingCheckpoint(Path file, long sequence, SessionData session) {
+    }
+}
@@ -0,0 +1,111 @@
+package dev.ua.ikeepcalm.doublelife.domain.service;
+
+import dev.ua.ikeepcalm.doublelife.DoubleLife;
+import dev.ua.ikeepcalm.doublelife.domain.model.SessionSnapshot;
+import dev.ua.ikeepcalm.doublelife.util.LogWriter;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Formats and writes session logs on a dedicated background thread.
+ * The queue is bounded; when it is full the submitting thread writes the log itself rather than dropping it.
+ */
+public class LogWriterService {
+
+    private static final int QUEUE_CAPACITY = 64;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 30;
+
+    private final DoubleLife plugin;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder writtenLogs = new LongAdder();
+    private final LongAdder failedLogs = new LongAdder();
+    private final LongAdder totalWriteNanos = new LongAdder();
+    private final AtomicLong maxWriteNanos = new AtomicLong();
+
+    public LogWriterService(DoubleLife plugin) {
+        this.plugin = plugin;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(QUEUE_CAPACITY),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "DoubleLife-LogWriter");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    public void submit(SessionSnapshot snapshot) {
+        executor.execute(() -> write(snapshot));
+    }
+
+    /**
+     * Stops accepting logs and waits for the queued ones to be written
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Timed out waiting for " + executor.getQueue().size() + " session logs to be written");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    public long getWrittenLogs() {
+        return writtenLogs.sum();
+    }
+
+    public long getFailedLogs() {
+        return failedLogs.sum();
+    }
+
+    public long getAverageWriteMillis() {
+        long written = writtenLogs.sum();
+        return written == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalWriteNanos.sum() / written);
+    }
+
+    public long getMaxWriteMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxWriteNanos.get());
+    }
+
+    private void write(SessionSnapshot snapshot) {
+        long start = System.nanoTime();
+        File logFile = new LogWriter(plugin, snapshot).writeLog();
+        long elapsed = System.nanoTime() - start;
+
+        if (logFile != null) {
+            writtenLogs.increment();
+            totalWriteNanos.add(elapsed);
+            maxWriteNanos.accumulateAndGet(elapsed, Math::max);
+        } else {
+            failedLogs.increment();
+        }
+
+        plugin.getWebhookUtil().sendLog(snapshot.getPlayerName(), logFile, snapshot);
+
+        if (logFile == null) {
+            // Keep the journal around so the activities can still be recovered by hand
+            return;
+        }
+
+        try {
+            snapshot.discardJournal();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to remove activity journal for " + snapshot.getPlayerName() + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package dev.ua.ikeepcalm.doublelife.domain.service;
+
+import dev.ua.ikeepcalm.doublelife.DoubleLife;
+import net.luckperms.api.model.user.User;
+import net.luckperms.api.model.user.UserManager;
+import net.luckperms.api.node.types.PermissionNode;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Grants and revokes the temporary turbo permissions through LuckPerms without touching storage on the main thread.
+ * <p>
+ * The {@link Backend#PERSISTENT} backend makes each call one {@link UserManager#modifyUser} mutation (load, apply every
+ * node, save) that completes once LuckPerms has persisted it; its nodes carry an expiry, so a revoke that never
+ * arrives still runs out. The {@link Backend#TRANSIENT} backend puts the nodes into the user's transient data instead:
+ * no storage or messaging I/O, and the nodes are gone as soon as the user is unloaded or the server stops.
+ */
+public class PermissionService {
+
+    private static final long TIMEOUT_SECONDS = 10;
+
+    private final DoubleLife plugin;
+    private final Set<CompletableFuture<Void>> inFlight = ConcurrentHashMap.newKeySet();
+    // Backend each player's permissions were granted with, so a config reload cannot strand them
+    private final Map<UUID, Backend> grantedWith = new ConcurrentHashMap<>();
+
+    public enum Backend {
+        PERSISTENT,
+        TRANSIENT
+    }
+
+    public PermissionService(DoubleLife plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Adds the temporary permissions through the configured backend. If a persistent grant fails or times out, the
+     * future completes exceptionally and the nodes are revoked once the grant's own save has finished, so a late save
+     * cannot leave them behind.
+     */
+    public CompletableFuture<Void> grant(UUID playerId, List<String> permissions, Duration expiry) {
+        Backend backend = plugin.getPluginConfig().getTurboPermissionBackend();
+        grantedWith.put(playerId, backend);
+        if (backend == Backend.TRANSIENT) {
+            return grantTransient(playerId, permissions);
+        }
+
+        UserManager userManager = plugin.getLuckPerms().getUserManager();
+        CompletableFuture<Void> mutation = track(userManager.modifyUser(playerId, user -> {
+            for (String permission : permissions) {
+                user.data().add(PermissionNode.builder(permission).expiry(expiry).build());
+            }
+        }));
+        // The timeout only gives up on waiting; the mutation keeps running, so the rollback waits for it to finish
+        return mutation.copy()
+                .orTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        plugin.getLogger().warning("Failed to grant turbo permissions to " + playerId + ", rolling back: "
+                                + describe(error));
+                        mutation.whenComplete((done, mutationError) -> revoke(playerId, permissions));
+                    }
+                });
+    }
+
+    /**
+     * Removes the temporary permissions; only nodes with an expiry are touched, so permanent grants of the same
+     * permission survive
+     */
+    public CompletableFuture<Void> revoke(UUID playerId, List<String> permissions) {
+        Set<String> keys = Set.copyOf(permissions);
+        Backend backend = grantedWith.remove(playerId);
+        if (backend == null) {
+            backend = plugin.getPluginConfig().getTurboPermissionBackend();
+        }
+        if (backend == Backend.TRANSIENT) {
+            User user = plugin.getLuckPerms().getUserManager().getUser(playerId);
+            if (user != null) {
+                user.transientData().clear(node -> keys.contains(node.getKey()));
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+
+        CompletableFuture<Void> future = plugin.getLuckPerms().getUserManager()
+                .modifyUser(playerId, user -> user.data().clear(node -> node.hasExpiry() && keys.contains(node.getKey())))
+                .orTimeout(TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                .whenComplete((ignored, error) -> {
+                    if (error != null) {
+                        plugin.getLogger().warning("Failed to revoke turbo permissions from " + playerId
+                                + ", they will expire on their own: " + describe(error));
+                    }
+                });
+        return track(future);
+    }
+
+    /**
+     * Whether the player's permissions live in transient data, which LuckPerms drops when the player leaves
+     */
+    public boolean isTransient(UUID playerId) {
+        return grantedWith.get(playerId) == Backend.TRANSIENT;
+    }
+
+    /**
+     * Waits for mutations still in flight, so permissions revoked while the server stops are saved
+     */
+    public void awaitPending() {
+        try {
+            CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new))
+                    .get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            plugin.getLogger().warning("Some permission changes did not finish before shutdown: " + describe(e));
+        }
+    }
+
+    private CompletableFuture<Void> grantTransient(UUID playerId, List<String> permissions) {
+        // Transient data only exists on loaded users; an online player always is
+        User user = plugin.getLuckPerms().getUserManager().getUser(playerId);
+        if (user == null) {
+            grantedWith.remove(playerId);
+            return CompletableFuture.failedFuture(new IllegalStateException("user is not loaded in LuckPerms"));
+        }
+        for (String permission : permissions) {
+            user.transientData().add(PermissionNode.builder(permission).build());
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private CompletableFuture<Void> track(CompletableFuture<Void> future) {
+        inFlight.add(future);
+        future.whenComplete((ignored, error) -> inFlight.remove(future));
+        return future;
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error.getCause() != null ? error.getCause() : error;
+        return cause instanceof TimeoutException ? "timed out after " + TIMEOUT_SECONDS + "s" : String.valueOf(cause.getMessage());
+    }
+}
@@ -0,0 +1,98 @@
+package dev.ua.ikeepcalm.doublelife.domain.service;
+
+import dev.ua.ikeepcalm.doublelife.DoubleLife;
+import dev.ua.ikeepcalm.doublelife.util.CommandKeySet;
+import dev.ua.ikeepcalm.doublelife.util.CommandTokenizer;
+import net.luckperms.api.event.EventBus;
+import net.luckperms.api.event.node.NodeMutateEvent;
+import net.luckperms.api.event.user.UserDataRecalculateEvent;
+import net.luckperms.api.model.group.Group;
+import net.luckperms.api.model.user.User;
+import org.bukkit.Bukkit;
+import org.bukkit.command.Command;
+import org.bukkit.entity.Player;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-player cache of the base commands restricted by the player's LuckPerms groups.
+ * Configured commands are expanded with the name and aliases of the command registered under them, so an alias or
+ * a namespaced label maps to the same restriction.
+ * Entries are dropped whenever LuckPerms recalculates or mutates the player's data, and wiped entirely on group
+ * changes and plugin reloads.
+ */
+public class RestrictedCommandIndex {
+
+    private final DoubleLife plugin;
+    private final Map<UUID, CommandKeySet> restrictedCommands = new ConcurrentHashMap<>();
+
+    public RestrictedCommandIndex(DoubleLife plugin) {
+        this.plugin = plugin;
+
+        EventBus eventBus = plugin.getLuckPerms().getEventBus();
+        eventBus.subscribe(plugin, UserDataRecalculateEvent.class, event -> invalidate(event.getUser().getUniqueId()));
+        eventBus.subscribe(plugin, NodeMutateEvent.class, event -> {
+            if (event.isUser()) {
+                invalidate(((User) event.getTarget()).getUniqueId());
+            } else {
+                // A group change can affect every player inheriting it
+                invalidateAll();
+            }
+        });
+    }
+
+    /**
+     * Checks the command label found at [start, end) of the raw message
+     */
+    public boolean isRestricted(Player player, CharSequence message, int start, int end) {
+        CommandKeySet commands = restrictedCommands.computeIfAbsent(player.getUniqueId(), this::resolve);
+        return commands != null && commands.contains(message, start, end);
+    }
+
+    public void invalidate(UUID playerId) {
+        restrictedCommands.remove(playerId);
+    }
+
+    public void invalidateAll() {
+        restrictedCommands.clear();
+    }
+
+    private CommandKeySet resolve(UUID playerId) {
+        User user = plugin.getLuckPerms().getUserManager().getUser(playerId);
+        if (user == null) {
+            // Not cached so the lookup is retried once LuckPerms has loaded the user
+            return null;
+        }
+
+        Map<String, Set<String>> groupCommands = plugin.getPluginConfig().getGroupCommands();
+        Set<String> commands = new HashSet<>();
+        for (Group group : user.getInheritedGroups(user.getQueryOptions())) {
+            Set<String> restricted = groupCommands.get(group.getName());
+            if (restricted != null) {
+                for (String command : restricted) {
+                    addWithAliases(commands, command);
+                }
+            }
+        }
+        return commands.isEmpty() ? CommandKeySet.EMPTY : new CommandKeySet(commands);
+    }
+
+    /**
+     * Adds an already normalized command key together with the name and aliases it is registered under
+     */
+    private void addWithAliases(Set<String> commands, String key) {
+        commands.add(key);
+
+        Command command = Bukkit.getCommandMap().getCommand(key);
+        if (command != null) {
+            commands.add(CommandTokenizer.normalize(command.getName()));
+            for (String alias : command.getAliases()) {
+                commands.add(CommandTokenizer.normalize(alias));
+            }
+        }
+    }
+}
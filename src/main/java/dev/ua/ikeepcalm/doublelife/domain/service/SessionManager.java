@@ -1,43 +1,51 @@
 package dev.ua.ikeepcalm.doublelife.domain.service;
 
 import dev.ua.ikeepcalm.doublelife.DoubleLife;
+import dev.ua.ikeepcalm.doublelife.config.PluginConfig;
+import dev.ua.ikeepcalm.doublelife.domain.model.ActivityJournal;
+import dev.ua.ikeepcalm.doublelife.domain.model.ActivityThrottle;
 import dev.ua.ikeepcalm.doublelife.domain.model.source.DoubleLifeMode;
 import dev.ua.ikeepcalm.doublelife.domain.model.SessionData;
 import dev.ua.ikeepcalm.doublelife.domain.model.PlayerState;
 import dev.ua.ikeepcalm.doublelife.util.ComponentUtil;
-import dev.ua.ikeepcalm.doublelife.util.LogWriter;
 import net.kyori.adventure.bossbar.BossBar;
-import net.kyori.adventure.text.Component;
-import net.luckperms.api.model.data.DataMutateResult;
-import net.luckperms.api.model.data.DataType;
-import net.luckperms.api.model.data.NodeMap;
-import net.luckperms.api.model.user.User;
-import net.luckperms.api.node.Node;
-import net.luckperms.api.node.types.PermissionNode;
+import lombok.Getter;
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitTask;
 
 import java.io.*;
 import java.time.Duration;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import org.bukkit.configuration.file.YamlConfiguration;
 
 public class SessionManager {
 
     private final DoubleLife plugin;
     private final Map<UUID, SessionData> activeSessions = new ConcurrentHashMap<>();
     private final Map<UUID, Long> cooldowns = new ConcurrentHashMap<>();
-    private final Map<UUID, BukkitTask> sessionTimers = new ConcurrentHashMap<>();
     private final Map<UUID, BossBar> bossBars = new ConcurrentHashMap<>();
-    private List<SessionData> pendingSessions = new ArrayList<>();
-
-    private static final String SESSIONS_FOLDER = "sessions";
+    // Turbo sessions whose permissions could not be granted while their owner was offline; ended when they rejoin
+    private final Set<UUID> failedGrants = ConcurrentHashMap.newKeySet();
+    private final SessionTicker ticker;
+    @Getter
+    private final BossBarRenderer bossBarRenderer;
+    @Getter
+    private final CheckpointService checkpointService;
+    @Getter
+    private final BlockActivityAggregator blockActivityAggregator;
+    @Getter
+    private final PermissionService permissionService;
+
+    private static final String JOURNALS_FOLDER = "journals";
 
     public SessionManager(DoubleLife plugin) {
         this.plugin = plugin;
-        loadPendingSessionsFromFile();
+        this.ticker = new SessionTicker(plugin, this::onSessionTick);
+        this.bossBarRenderer = new BossBarRenderer(plugin);
+        this.checkpointService = new CheckpointService(plugin, activeSessions::get);
+        this.blockActivityAggregator = new BlockActivityAggregator(plugin);
+        this.permissionService = new PermissionService(plugin);
+        checkpointService.indexPending();
     }
 
     public boolean canStartSession(Player player) {
@@ -78,19 +86,29 @@ public class SessionManager {
 
         PlayerState savedState = PlayerState.capture(player);
         SessionData session = new SessionData(player.getUniqueId(), savedState, mode);
+        openJournal(session);
         activeSessions.put(player.getUniqueId(), session);
+        checkpointService.markDirty(player.getUniqueId());
 
         // Clear inventory and execute entry commands for both modes
         player.getInventory().clear();
         executeEntryCommands(player);
 
         if (mode == DoubleLifeMode.TURBO) {
-            applyAdminMode(player);
-            // Send immediate Discord notification for turbo mode activation
-            plugin.getWebhookUtil().sendTurboModeActivation(player.getName());
+            // Turbo mode only starts once LuckPerms has saved the permissions, see applyAdminMode
+            applyAdminMode(player, session, true);
+            return;
         }
 
-        startTimer(player, session);
+        beginSession(player, session);
+    }
+
+    /**
+     * Starts the timer and boss bar and tells the player the session is running
+     */
+    private void beginSession(Player player, SessionData session) {
+        DoubleLifeMode mode = session.getMode();
+        startTimer(player.getUniqueId());
         createBossBar(player, mode);
 
         String modeMessage = mode == DoubleLifeMode.TURBO ? "session.turbo-start-success" : "session.default-start-success";
@@ -108,6 +126,9 @@ public class SessionManager {
             return;
         }
 
+        blockActivityAggregator.flush(player.getUniqueId());
+        failedGrants.remove(player.getUniqueId());
+
         session.end();
         restorePlayerState(player, session);
         
@@ -115,18 +136,16 @@ public class SessionManager {
             removeAdminMode(player);
         }
 
-        BukkitTask timer = sessionTimers.remove(player.getUniqueId());
-        if (timer != null) {
-            timer.cancel();
-        }
+        ticker.cancel(player.getUniqueId());
+        checkpointService.discard(player.getUniqueId());
 
         BossBar bossBar = bossBars.remove(player.getUniqueId());
         if (bossBar != null) {
             player.hideBossBar(bossBar);
         }
+        bossBarRenderer.forget(player.getUniqueId());
 
-        LogWriter logWriter = new LogWriter(plugin, session);
-        logWriter.writeLog();
+        plugin.getLogWriterService().submit(session.snapshot(player.getName()));
 
         long cooldownDuration = plugin.getPluginConfig().getCooldownDuration() * 1000L;
         cooldowns.put(player.getUniqueId(), System.currentTimeMillis() + cooldownDuration);
@@ -145,139 +164,73 @@ public class SessionManager {
         }
     }
 
+    /**
+     * Writes every active session one final time so it can be restored after the restart
+     */
     public void saveSessionsOnShutdown() {
-        if (activeSessions.isEmpty()) {
-            return;
-        }
-
-        File sessionsFolder = new File(plugin.getDataFolder(), SESSIONS_FOLDER);
-        if (!sessionsFolder.exists()) {
-            sessionsFolder.mkdirs();
-        }
+        ticker.stop();
+        blockActivityAggregator.stop();
+        checkpointService.shutdown();
 
         int savedCount = 0;
-        for (Map.Entry<UUID, SessionData> entry : activeSessions.entrySet()) {
-            try {
-                Player player = Bukkit.getPlayer(entry.getKey());
-                if (player == null) continue;
-
-                SessionData session = entry.getValue();
-                saveSessionToYaml(session, player.getName());
+        for (SessionData session : activeSessions.values()) {
+            if (checkpointService.writeNow(session)) {
                 savedCount++;
-            } catch (Exception e) {
-                plugin.getLogger().warning("Failed to save session for player " + entry.getKey() + ": " + e.getMessage());
             }
-        }
-
-        plugin.getLogger().info("Saved " + savedCount + " active sessions to individual YAML files");
-    }
-
-    private void saveSessionToYaml(SessionData session, String playerName) {
-        try {
-            File sessionsFolder = new File(plugin.getDataFolder(), SESSIONS_FOLDER);
-            File sessionFile = new File(sessionsFolder, playerName + ".yml");
-
-            YamlConfiguration yaml = new YamlConfiguration();
-            yaml.set("session", session);
-            yaml.save(sessionFile);
-
-            plugin.getLogger().info("Saved session for " + playerName +
-                " with " + (session.getSavedState() != null ? "preserved" : "MISSING") + " player state");
-
-        } catch (Exception e) {
-            plugin.getLogger().severe("Failed to save session YAML for " + playerName + ": " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-
-    private void loadPendingSessionsFromFile() {
-        File sessionsFolder = new File(plugin.getDataFolder(), SESSIONS_FOLDER);
-        if (!sessionsFolder.exists()) {
-            return;
-        }
-
-        File[] sessionFiles = sessionsFolder.listFiles((dir, name) -> name.endsWith(".yml"));
-        if (sessionFiles == null || sessionFiles.length == 0) {
-            return;
-        }
-
-        int loadedCount = 0;
-        for (File sessionFile : sessionFiles) {
             try {
-                SessionData session = loadSessionFromYaml(sessionFile);
-                if (session != null) {
-                    pendingSessions.add(session);
-                    loadedCount++;
-                }
-            } catch (Exception e) {
-                plugin.getLogger().warning("Failed to load session file " + sessionFile.getName() + ": " + e.getMessage());
-                // Delete corrupted file
-                sessionFile.delete();
+                session.closeJournal();
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to flush activity journal for " + session.getPlayerId() + ": " + e.getMessage());
             }
         }
 
-        if (loadedCount > 0) {
-            plugin.getLogger().info("Loaded " + loadedCount + " pending sessions from YAML files");
+        if (savedCount > 0) {
+            plugin.getLogger().info("Saved " + savedCount + " active sessions to individual YAML files");
         }
     }
 
-    private SessionData loadSessionFromYaml(File sessionFile) {
-        try {
-            YamlConfiguration yaml = YamlConfiguration.loadConfiguration(sessionFile);
-
-            Object sessionObj = yaml.get("session");
-            SessionData session = null;
-
-            if (sessionObj instanceof SessionData) {
-                session = (SessionData) sessionObj;
-            } else if (sessionObj instanceof Map) {
-                @SuppressWarnings("unchecked")
-                Map<String, Object> sessionMap = (Map<String, Object>) sessionObj;
-                session = SessionData.deserialize(sessionMap);
+    /**
+     * Restores a session saved before a restart once its file has been loaded off the main thread
+     */
+    public void restoreSessionForPlayer(Player player) {
+        SessionData active = activeSessions.get(player.getUniqueId());
+        if (active != null) {
+            if (failedGrants.remove(player.getUniqueId())) {
+                player.sendMessage(ComponentUtil.error(plugin.getLangConfig().getMessage("permissions.failed-to-apply", player)));
+                endSession(player);
+                return;
             }
-
-            if (session == null) {
-                plugin.getLogger().warning("Failed to deserialize session from " + sessionFile.getName());
-                sessionFile.delete();
-                return null;
+            // Transient permissions were dropped together with the LuckPerms user when the player left
+            if (active.getMode() == DoubleLifeMode.TURBO && permissionService.isTransient(player.getUniqueId())) {
+                applyAdminMode(player, active, false);
+            }
+            // A turbo session whose permissions were saved after its owner left has no boss bar yet
+            if (!bossBars.containsKey(player.getUniqueId())) {
+                createBossBar(player, active.getMode());
             }
-
-            plugin.getLogger().info("Successfully loaded session from " + sessionFile.getName() +
-                " with " + (session.getSavedState() != null ? "preserved" : "MISSING") + " player state");
-
-            sessionFile.delete();
-
-            return session;
-        } catch (Exception e) {
-            plugin.getLogger().severe("Failed to load session YAML from " + sessionFile.getName() + ": " + e.getMessage());
-            e.printStackTrace();
-            return null;
-        }
-    }
-    
-    public void restoreSessionForPlayer(Player player) {
-        if (pendingSessions.isEmpty()) {
             return;
         }
 
-        UUID playerId = player.getUniqueId();
-        SessionData sessionToRestore = null;
-
-        for (SessionData session : pendingSessions) {
-            if (session.getPlayerId().equals(playerId)) {
-                sessionToRestore = session;
-                break;
+        checkpointService.takePending(player.getUniqueId()).whenComplete((session, error) -> {
+            if (error != null) {
+                plugin.getLogger().warning("Failed to load saved session for player " + player.getName() + ": " + error.getMessage());
+            } else if (session != null) {
+                Bukkit.getScheduler().runTask(plugin, () -> restoreSession(player, session));
             }
-        }
+        });
+    }
 
-        if (sessionToRestore == null) {
-            return;
-        }
+    private void restoreSession(Player player, SessionData sessionToRestore) {
+        UUID playerId = player.getUniqueId();
 
         try {
+            if (!player.isOnline()) {
+                checkpointService.returnPending(sessionToRestore);
+                return;
+            }
+
             if (hasActiveSession(player)) {
                 plugin.getLogger().warning("Player " + player.getName() + " already has an active session, skipping restoration");
-                pendingSessions.remove(sessionToRestore);
                 return;
             }
 
@@ -286,71 +239,128 @@ public class SessionManager {
             if (sessionToRestore.getDuration().toMinutes() >= totalAllowedMinutes) {
                 plugin.getLogger().info("Session for " + player.getName() + " has expired, not restoring");
                 player.sendMessage(ComponentUtil.warning(plugin.getLangConfig().getMessage("session.expired-during-restart", player)));
-                pendingSessions.remove(sessionToRestore);
+                checkpointService.discard(playerId);
+                deleteJournal(sessionToRestore);
                 return;
             }
 
+            openJournal(sessionToRestore);
             activeSessions.put(playerId, sessionToRestore);
+            checkpointService.markDirty(playerId);
 
             if (sessionToRestore.getMode() == DoubleLifeMode.TURBO) {
-                applyAdminMode(player);
+                applyAdminMode(player, sessionToRestore, false);
             }
 
-            startTimer(player, sessionToRestore);
+            startTimer(playerId);
             createBossBar(player, sessionToRestore.getMode());
 
             player.sendMessage(ComponentUtil.success(plugin.getLangConfig().getMessage("session.restored-after-restart", player)));
 
             plugin.getLogger().info("Restored " + sessionToRestore.getMode().getDisplayName() + " session for " + player.getName());
 
-            pendingSessions.remove(sessionToRestore);
-
         } catch (Exception e) {
             plugin.getLogger().warning("Failed to restore session for player " + player.getName() + ": " + e.getMessage());
-            pendingSessions.remove(sessionToRestore);
         }
     }
 
-    private void applyAdminMode(Player player) {
-        plugin.getLogger().info("Applying admin mode for " + player.getName());
-        User user = plugin.getLuckPerms().getUserManager().getUser(player.getUniqueId());
-        if (user == null) {
-            plugin.getLogger().info("User was not found in LuckPerms, withdrawing...");
-            return;
-        }
-
+    /**
+     * Grants the temporary permissions off the main thread and continues on it once they are saved. A new turbo
+     * session (starting) only gets its timer, boss bar and start message, and is only announced on Discord, at that
+     * point; until then the player has a cleared inventory and no permissions.
+     * If the permissions cannot be applied, the session is ended again so the player is not left in turbo mode
+     * without them. If the player has left by then, it is ended as soon as they rejoin, which restores their state.
+     */
+    private void applyAdminMode(Player player, SessionData session, boolean starting) {
+        UUID playerId = player.getUniqueId();
         List<String> permissions = plugin.getPluginConfig().getTemporaryPermissions();
+        plugin.getLogger().info("Applying admin mode for " + player.getName());
 
-        for (String permission : permissions) {
-            Node node = PermissionNode.builder(permission)
-                    .expiry(Duration.ofMinutes(plugin.getPluginConfig().getMaxDuration()))
-                    .build();
-            user.data().add(node);
-            plugin.getLogger().info("Adding permission " + permission + " to " + player.getName());
-        }
-
-        plugin.getLuckPerms().getUserManager().saveUser(user);
-        plugin.getLogger().info("Saved nodes!");
+        permissionService.grant(playerId, permissions, Duration.ofMinutes(plugin.getPluginConfig().getMaxDuration()))
+                .whenComplete((ignored, error) -> Bukkit.getScheduler().runTask(plugin, () -> {
+                    if (activeSessions.get(playerId) != session) {
+                        // Ended while the grant was saving; its revoke may have run first
+                        if (error == null) {
+                            permissionService.revoke(playerId, permissions);
+                        }
+                        return;
+                    }
+
+                    // The player may have left, or rejoined as a new Player object, while the grant was saving
+                    Player online = Bukkit.getPlayer(playerId);
+                    if (error != null) {
+                        plugin.getLogger().warning(plugin.getLangConfig().getMessage("permissions.failed-to-apply") + ": " + player.getName());
+                        if (online != null) {
+                            online.sendMessage(ComponentUtil.error(plugin.getLangConfig().getMessage("permissions.failed-to-apply", online)));
+                            endSession(online);
+                        } else {
+                            failedGrants.add(playerId);
+                        }
+                        return;
+                    }
+
+                    plugin.getLogger().info("Saved " + permissions.size() + " temporary permissions for " + player.getName());
+                    if (starting) {
+                        if (online != null) {
+                            beginSession(online, session);
+                        } else {
+                            // Still let the session expire on time
+                            startTimer(playerId);
+                        }
+                        plugin.getWebhookUtil().sendTurboModeActivation(player.getName());
+                    }
+                }));
     }
 
     private void removeAdminMode(Player player) {
-        User user = plugin.getLuckPerms().getUserManager().getUser(player.getUniqueId());
-        if (user == null) return;
+        player.setOp(false);
 
-        List<String> permissions = plugin.getPluginConfig().getTemporaryPermissions();
-        NodeMap nodeMap = user.getData(DataType.NORMAL);
+        String playerName = player.getName();
+        permissionService.revoke(player.getUniqueId(), plugin.getPluginConfig().getTemporaryPermissions())
+                .thenRun(() -> plugin.getLogger().info(plugin.getLangConfig().getMessage("permissions.removed") + " for " + playerName));
+    }
 
-        for (String permission : permissions) {
-            user.data().clear(n -> n.getKey().equals(permission));
+    private void openJournal(SessionData session) {
+        session.attachThrottle(new ActivityThrottle(plugin.getPluginConfig().getActivityRateLimits()));
 
-            if (nodeMap.remove(Node.builder(permission).build()) == DataMutateResult.SUCCESS) {
-                plugin.getLogger().info(plugin.getLangConfig().getMessage("permissions.removed") + ": " + permission + " for " + player.getName());
+        File journalsFolder = new File(plugin.getDataFolder(), JOURNALS_FOLDER);
+        if (!journalsFolder.exists()) {
+            journalsFolder.mkdirs();
+        }
+
+        if (session.getJournalName() != null) {
+            File previous = new File(journalsFolder, session.getJournalName());
+            if (previous.exists()) {
+                try {
+                    session.resumeJournal(previous.toPath(), plugin.getLogger());
+                    return;
+                } catch (IOException e) {
+                    plugin.getLogger().warning("Failed to reopen activity journal " + previous.getName()
+                            + ", starting a new one: " + e.getMessage());
+                }
             }
         }
 
-        player.setOp(false);
+        File journalFile = new File(journalsFolder, session.getPlayerId() + "-" + System.currentTimeMillis() + ".journal");
+        try {
+            session.attachJournal(ActivityJournal.open(journalFile.toPath(), plugin.getLogger()));
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to open activity journal for " + session.getPlayerId()
+                    + ", only recent activities will be logged: " + e.getMessage());
+        }
+    }
 
-        plugin.getLuckPerms().getUserManager().saveUser(user);
+    /**
+     * Removes the journal of a restored session that is dropped without a log being written
+     */
+    private void deleteJournal(SessionData session) {
+        if (session.getJournalName() == null) {
+            return;
+        }
+        File journalFile = new File(new File(plugin.getDataFolder(), JOURNALS_FOLDER), session.getJournalName());
+        if (journalFile.exists() && !journalFile.delete()) {
+            plugin.getLogger().warning("Failed to delete activity journal " + journalFile.getName());
+        }
     }
 
     private void restorePlayerState(Player player, SessionData session) {
@@ -364,20 +374,32 @@ public class SessionManager {
         plugin.getLogger().info("Successfully restored player state for " + player.getName());
     }
 
-    private void startTimer(Player player, SessionData session) {
-        long maxDurationTicks = plugin.getPluginConfig().getMaxDuration() * 60L * 20L;
+    private void startTimer(UUID playerId) {
+        // Wake up on the next tick for the initial boss bar update
+        ticker.schedule(playerId, System.currentTimeMillis());
+    }
+
+    private void onSessionTick(UUID playerId) {
+        SessionData session = activeSessions.get(playerId);
+        if (session == null) {
+            return;
+        }
 
-        BukkitTask task = Bukkit.getScheduler().runTaskTimer(plugin, () -> {
+        Player player = Bukkit.getPlayer(playerId);
+        if (player != null) {
             updateBossBar(player, session);
 
             long maxDuration = plugin.getPluginConfig().getMaxDuration();
             long totalAllowedMinutes = session.getTotalAllowedMinutes(maxDuration);
             if (session.getDuration().toMinutes() >= totalAllowedMinutes) {
                 endSession(player);
+                return;
             }
-        }, 0L, 20L);
+        }
 
-        sessionTimers.put(player.getUniqueId(), task);
+        // Both the displayed minute and the expiry only change on whole-minute boundaries of the session
+        long elapsedMillis = session.getDuration().toMillis();
+        ticker.schedule(playerId, System.currentTimeMillis() + (60_000L - elapsedMillis % 60_000L));
     }
 
     private void createBossBar(Player player, DoubleLifeMode mode) {
@@ -393,36 +415,19 @@ public class SessionManager {
 
         player.showBossBar(bossBar);
         bossBars.put(player.getUniqueId(), bossBar);
+        bossBarRenderer.track(player.getUniqueId(), bossBar);
     }
 
     private void updateBossBar(Player player, SessionData session) {
         BossBar bossBar = bossBars.get(player.getUniqueId());
         if (bossBar == null) return;
 
-        Duration duration = session.getDuration();
-        long baseDuration = plugin.getPluginConfig().getMaxDuration();
-        long totalAllowedMinutes = session.getTotalAllowedMinutes(baseDuration);
-        float progress = 1.0f - (float) duration.toMinutes() / totalAllowedMinutes;
-
-        long remainingMinutes = totalAllowedMinutes - duration.toMinutes();
-        String titleText = plugin.getLangConfig().getMessage("bossbar.remaining-time", remainingMinutes);
-        Component title = ComponentUtil.gradient(titleText, "#FFD700", "#FF6B35");
-
-        bossBar.name(title);
-        bossBar.progress(Math.max(0, Math.min(1, progress)));
-
-        if (remainingMinutes <= 1) {
-            bossBar.color(BossBar.Color.RED);
-        } else if (remainingMinutes <= 5) {
-            bossBar.color(BossBar.Color.PINK);
-        }
+        bossBarRenderer.render(player, bossBar, session);
     }
 
     private void executeEntryCommands(Player player) {
-        List<String> commands = plugin.getPluginConfig().getEntryCommands();
-        for (String command : commands) {
-            String processedCommand = command.replace("{player}", player.getName());
-            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), processedCommand);
+        for (PluginConfig.CommandTemplate command : plugin.getPluginConfig().getEntryCommands()) {
+            Bukkit.dispatchCommand(Bukkit.getConsoleSender(), command.render(player.getName()));
         }
     }
 
@@ -458,6 +463,7 @@ public class SessionManager {
 
         long extensionMillis = additionalMinutes * 60L * 1000L;
         session.extendSession(extensionMillis);
+        checkpointService.markDirty(player.getUniqueId());
 
         updateBossBar(player, session);
 
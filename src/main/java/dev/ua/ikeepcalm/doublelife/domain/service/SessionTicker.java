@@ -0,0 +1,69 @@
+package dev.ua.ikeepcalm.doublelife.domain.service;
+
+import dev.ua.ikeepcalm.doublelife.DoubleLife;
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Single main-thread ticker shared by all active sessions.
+ * Sessions are kept in a deadline heap and only the ones whose wake-up time has passed are handed to the callback,
+ * so the per-tick cost depends on how many sessions changed rather than how many are active.
+ */
+public class SessionTicker {
+
+    private static final long TICK_PERIOD = 20L;
+
+    private final PriorityQueue<Deadline> deadlines = new PriorityQueue<>(Comparator.comparingLong(Deadline::wakeAt));
+    private final Map<UUID, Deadline> scheduled = new HashMap<>();
+    private final Consumer<UUID> callback;
+    private final BukkitTask task;
+
+    public SessionTicker(DoubleLife plugin, Consumer<UUID> callback) {
+        this.callback = callback;
+        this.task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, TICK_PERIOD, TICK_PERIOD);
+    }
+
+    /**
+     * Schedules (or reschedules) the session to be woken up at the given epoch millis
+     */
+    public void schedule(UUID playerId, long wakeAt) {
+        Deadline deadline = new Deadline(playerId, wakeAt);
+        scheduled.put(playerId, deadline);
+        deadlines.add(deadline);
+    }
+
+    public void cancel(UUID playerId) {
+        // The heap entry is left behind and skipped when polled
+        scheduled.remove(playerId);
+    }
+
+    public void stop() {
+        task.cancel();
+        scheduled.clear();
+        deadlines.clear();
+    }
+
+    private void tick() {
+        long now = System.currentTimeMillis();
+
+        Deadline head;
+        while ((head = deadlines.peek()) != null && head.wakeAt() <= now) {
+            deadlines.poll();
+            if (scheduled.get(head.playerId()) != head) {
+                continue;
+            }
+            scheduled.remove(head.playerId());
+            callback.accept(head.playerId());
+        }
+    }
+
+    private record Deadline(UUID playerId, long wakeAt) {
+    }
+}
@@ -4,6 +4,7 @@ import dev.triumphteam.gui.builder.item.PaperItemBuilder;
 import dev.triumphteam.gui.guis.Gui;
 import dev.triumphteam.gui.guis.GuiItem;
 import dev.ua.ikeepcalm.doublelife.DoubleLife;
+import dev.ua.ikeepcalm.doublelife.domain.model.ActivityLog;
 import dev.ua.ikeepcalm.doublelife.domain.model.source.DoubleLifeMode;
 import dev.ua.ikeepcalm.doublelife.domain.model.SessionData;
 import dev.ua.ikeepcalm.doublelife.util.ComponentUtil;
@@ -146,7 +147,7 @@ public class DoubleLifeGUI {
         lore.add(ComponentUtil.lore("Mode: " + session.getMode().getDisplayName(), ComponentUtil.ACCENT_COLOR));
         lore.add(ComponentUtil.lore(plugin.getLangConfig().getMessage("gui.time-elapsed", player, duration.toMinutes()), ComponentUtil.PRIMARY_COLOR));
         lore.add(ComponentUtil.lore(plugin.getLangConfig().getMessage("gui.time-remaining", player, remainingMinutes), ComponentUtil.WARNING_COLOR));
-        lore.add(ComponentUtil.lore(plugin.getLangConfig().getMessage("gui.activities-logged", player, session.getActivities().size()), ComponentUtil.SUCCESS_COLOR));
+        lore.add(ComponentUtil.lore(plugin.getLangConfig().getMessage("gui.activities-logged", player, session.getActivityCount()), ComponentUtil.SUCCESS_COLOR));
         lore.add(Component.empty());
         
         ItemStack item = PaperItemBuilder.from(Material.CLOCK)
@@ -200,15 +201,16 @@ public class DoubleLifeGUI {
         lore.add(Component.empty());
         lore.add(ComponentUtil.lore(plugin.getLangConfig().getMessage("gui.recent-activities", player)));
         
+        List<ActivityLog> recentActivities = session.getRecentActivities();
         int count = 0;
-        for (int i = session.getActivities().size() - 1; i >= 0 && count < 5; i--) {
-            var activity = session.getActivities().get(i);
+        for (int i = recentActivities.size() - 1; i >= 0 && count < 5; i--) {
+            var activity = recentActivities.get(i);
             lore.add(ComponentUtil.lore("• " + activity.getType().getDisplayName(), ComponentUtil.ACCENT_COLOR));
             count++;
         }
         
-        if (session.getActivities().size() > 5) {
-            lore.add(ComponentUtil.lore(plugin.getLangConfig().getMessage("gui.more-activities", player, (session.getActivities().size() - 5))));
+        if (session.getActivityCount() > 5) {
+            lore.add(ComponentUtil.lore(plugin.getLangConfig().getMessage("gui.more-activities", player, (session.getActivityCount() - 5))));
         }
         
         lore.add(Component.empty());
@@ -1,11 +1,10 @@
 package dev.ua.ikeepcalm.doublelife.listener;
 
 import dev.ua.ikeepcalm.doublelife.DoubleLife;
+import dev.ua.ikeepcalm.doublelife.domain.model.ActivityLog;
+import dev.ua.ikeepcalm.doublelife.domain.model.PackedLocation;
 import dev.ua.ikeepcalm.doublelife.domain.model.source.ActivityType;
 import dev.ua.ikeepcalm.doublelife.domain.model.SessionData;
-import org.bukkit.Location;
-import org.bukkit.Material;
-import org.bukkit.block.Block;
 import org.bukkit.block.Container;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
@@ -20,15 +19,9 @@ import org.bukkit.event.player.*;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 
-import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-
 public class ActivityListener implements Listener {
     
     private final DoubleLife plugin;
-    private final Map<UUID, List<Block>> blockBatch = new ConcurrentHashMap<>();
-    private final Map<UUID, Long> lastBatchTime = new ConcurrentHashMap<>();
-    private static final long BATCH_INTERVAL = 1000;
     
     public ActivityListener(DoubleLife plugin) {
         this.plugin = plugin;
@@ -41,7 +34,7 @@ public class ActivityListener implements Listener {
         if (session == null || !plugin.getPluginConfig().isLogCommands()) return;
         
         String command = event.getMessage();
-        String location = formatLocation(player.getLocation());
+        PackedLocation location = PackedLocation.of(player.getLocation());
         session.logActivity(ActivityType.COMMAND, command, location);
     }
     
@@ -52,7 +45,7 @@ public class ActivityListener implements Listener {
         if (session == null || !plugin.getPluginConfig().isLogGamemodeChanges()) return;
         
         String details = event.getCause() + ": " + player.getGameMode() + " -> " + event.getNewGameMode();
-        String location = formatLocation(player.getLocation());
+        PackedLocation location = PackedLocation.of(player.getLocation());
         session.logActivity(ActivityType.GAMEMODE_CHANGE, details, location);
     }
     
@@ -63,7 +56,8 @@ public class ActivityListener implements Listener {
         SessionData session = plugin.getSessionManager().getSession(player);
         if (session == null) return;
         
-        addBlockToBatch(player, event.getBlock(), true);
+        plugin.getSessionManager().getBlockActivityAggregator().add(player.getUniqueId(), session,
+                event.getBlock().getType(), PackedLocation.of(event.getBlock().getLocation()), true);
     }
     
     @EventHandler(priority = EventPriority.MONITOR)
@@ -73,7 +67,8 @@ public class ActivityListener implements Listener {
         SessionData session = plugin.getSessionManager().getSession(player);
         if (session == null) return;
         
-        addBlockToBatch(player, event.getBlock(), false);
+        plugin.getSessionManager().getBlockActivityAggregator().add(player.getUniqueId(), session,
+                event.getBlock().getType(), PackedLocation.of(event.getBlock().getLocation()), false);
     }
     
     @EventHandler(priority = EventPriority.MONITOR)
@@ -85,7 +80,7 @@ public class ActivityListener implements Listener {
         Inventory inv = event.getInventory();
         if (inv.getHolder() instanceof Container) {
             String details = inv.getType().name() + " (" + inv.getSize() + " slots)";
-            String location = formatLocation(inv.getLocation());
+            PackedLocation location = PackedLocation.of(inv.getLocation());
             session.logActivity(ActivityType.CONTAINER_ACCESS, details, location);
         }
     }
@@ -104,7 +99,7 @@ public class ActivityListener implements Listener {
         if (isContainerTransfer) {
             ItemStack item = event.getCurrentItem();
             String details = item.getType() + " x" + item.getAmount();
-            String location = formatLocation(player.getLocation());
+            PackedLocation location = PackedLocation.of(player.getLocation());
             session.logActivity(ActivityType.CONTAINER_TRANSFER, details, location);
         }
     }
@@ -117,7 +112,7 @@ public class ActivityListener implements Listener {
         
         ItemStack item = event.getItemDrop().getItemStack();
         String details = item.getType() + " x" + item.getAmount();
-        String location = formatLocation(player.getLocation());
+        PackedLocation location = PackedLocation.of(player.getLocation());
         session.logActivity(ActivityType.ITEM_DROP, details, location);
     }
     
@@ -129,7 +124,7 @@ public class ActivityListener implements Listener {
         
         ItemStack item = event.getItem().getItemStack();
         String details = item.getType() + " x" + item.getAmount();
-        String location = formatLocation(player.getLocation());
+        PackedLocation location = PackedLocation.of(player.getLocation());
         session.logActivity(ActivityType.ITEM_PICKUP, details, location);
     }
     
@@ -139,56 +134,8 @@ public class ActivityListener implements Listener {
         SessionData session = plugin.getSessionManager().getSession(player);
         if (session == null) return;
         
-        String fromLoc = formatLocation(event.getFrom());
-        String toLoc = formatLocation(event.getTo());
-        String details = event.getCause() + ": " + fromLoc + " -> " + toLoc;
-        session.logActivity(ActivityType.TELEPORT, details, toLoc);
-    }
-    
-    private void addBlockToBatch(Player player, Block block, boolean isPlace) {
-        UUID playerId = player.getUniqueId();
-        List<Block> batch = blockBatch.computeIfAbsent(playerId, k -> new ArrayList<>());
-        batch.add(block);
-        
-        Long lastBatch = lastBatchTime.get(playerId);
-        long now = System.currentTimeMillis();
-        
-        if (lastBatch == null || now - lastBatch >= BATCH_INTERVAL || batch.size() >= 10) {
-            processBatch(player, new ArrayList<>(batch), isPlace);
-            batch.clear();
-            lastBatchTime.put(playerId, now);
-        }
-    }
-    
-    private void processBatch(Player player, List<Block> blocks, boolean isPlace) {
-        SessionData session = plugin.getSessionManager().getSession(player);
-        if (session == null) return;
-        
-        Map<Material, Integer> counts = new HashMap<>();
-        Location firstLoc = null;
-        
-        for (Block block : blocks) {
-            counts.merge(block.getType(), 1, Integer::sum);
-            if (firstLoc == null) firstLoc = block.getLocation();
-        }
-        
-        StringBuilder details = new StringBuilder();
-        counts.forEach((mat, count) -> {
-            if (!details.isEmpty()) details.append(", ");
-            details.append(mat.name()).append(" x").append(count);
-        });
-        
-        String location = formatLocation(firstLoc);
-        ActivityType type = isPlace ? ActivityType.BLOCK_PLACE : ActivityType.BLOCK_BREAK;
-        session.logActivity(type, details.toString(), location);
-    }
-    
-    private String formatLocation(Location loc) {
-        if (loc == null) return "Unknown";
-        return String.format("%s [%d, %d, %d]", 
-            loc.getWorld().getName(), 
-            loc.getBlockX(), 
-            loc.getBlockY(), 
-            loc.getBlockZ());
+        // Both ends stay packed; the "from -> to" text is rendered with the log
+        session.logActivity(new ActivityLog(ActivityType.TELEPORT, event.getCause().name(),
+                PackedLocation.of(event.getFrom()), PackedLocation.of(event.getTo())));
     }
 }
\ No newline at end of file
@@ -0,0 +1,30 @@
+package dev.ua.ikeepcalm.doublelife.listener;
+
+import com.destroystokyo.paper.event.player.PlayerLocaleChangeEvent;
+import dev.ua.ikeepcalm.doublelife.DoubleLife;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+
+/**
+ * Keeps the per-player language cache in {@link dev.ua.ikeepcalm.doublelife.config.LangConfig} in step with the client
+ */
+public class PlayerLocaleListener implements Listener {
+
+    private final DoubleLife plugin;
+
+    public PlayerLocaleListener(DoubleLife plugin) {
+        this.plugin = plugin;
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onLocaleChange(PlayerLocaleChangeEvent event) {
+        plugin.getLangConfig().updatePlayerLocale(event.getPlayer(), event.locale());
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onQuit(PlayerQuitEvent event) {
+        plugin.getLangConfig().forgetPlayer(event.getPlayer().getUniqueId());
+    }
+}
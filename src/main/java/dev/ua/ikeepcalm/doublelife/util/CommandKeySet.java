@@ -0,0 +1,90 @@
+package dev.ua.ikeepcalm.doublelife.util;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable open-addressing set of lower-case command keys that can be probed with a region of a larger
+ * character sequence, ignoring case, without creating a substring first.
+ */
+public final class CommandKeySet {
+
+    public static final CommandKeySet EMPTY = new CommandKeySet(List.of());
+
+    private final String[] keys;
+    private final int[] hashes;
+    private final int mask;
+    private final int size;
+
+    public CommandKeySet(Collection<String> commands) {
+        int capacity = Integer.highestOneBit(Math.max(4, commands.size() * 2 - 1)) << 1;
+        this.keys = new String[capacity];
+        this.hashes = new int[capacity];
+        this.mask = capacity - 1;
+
+        int count = 0;
+        for (String command : commands) {
+            String key = lowerCase(command);
+            int hash = key.hashCode();
+            int slot = hash & mask;
+            while (keys[slot] != null && !keys[slot].equals(key)) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == null) {
+                keys[slot] = key;
+                hashes[slot] = hash;
+                count++;
+            }
+        }
+        this.size = count;
+    }
+
+    public boolean contains(CharSequence text, int start, int end) {
+        if (size == 0 || start >= end) {
+            return false;
+        }
+
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + Character.toLowerCase(text.charAt(i));
+        }
+
+        int slot = hash & mask;
+        String key;
+        while ((key = keys[slot]) != null) {
+            if (hashes[slot] == hash && regionMatches(key, text, start, end)) {
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    public boolean contains(String command) {
+        return contains(command, 0, command.length());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private static String lowerCase(String command) {
+        char[] chars = command.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    private static boolean regionMatches(String key, CharSequence text, int start, int end) {
+        if (key.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (key.charAt(i) != Character.toLowerCase(text.charAt(start + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,48 @@
+package dev.ua.ikeepcalm.doublelife.util;
+
+import java.util.Locale;
+
+/**
+ * Allocation-free helpers for locating the base command label inside a raw command message.
+ * The label span is returned packed into a single long: start index in the high half, end index in the low half.
+ */
+public final class CommandTokenizer {
+
+    private CommandTokenizer() {
+    }
+
+    /**
+     * Finds the label of "/[namespace:]label args...", so "/minecraft:tp a b" yields the span of "tp"
+     */
+    public static long labelSpan(CharSequence message) {
+        int length = message.length();
+        int start = length > 0 && message.charAt(0) == '/' ? 1 : 0;
+        int end = start;
+
+        while (end < length && !Character.isWhitespace(message.charAt(end))) {
+            if (message.charAt(end) == ':') {
+                start = end + 1;
+            }
+            end++;
+        }
+
+        return ((long) start << 32) | end;
+    }
+
+    public static int spanStart(long span) {
+        return (int) (span >>> 32);
+    }
+
+    public static int spanEnd(long span) {
+        return (int) span;
+    }
+
+    /**
+     * Normalizes a configured command or alias to its lookup key: lower case, without slash or namespace.
+     * Lower-cased independently of the default locale, like the per-character probes of {@link CommandKeySet}.
+     */
+    public static String normalize(String command) {
+        long span = labelSpan(command.trim());
+        return command.trim().substring(spanStart(span), spanEnd(span)).toLowerCase(Locale.ROOT);
+    }
+}
@@ -6,14 +6,32 @@ import net.kyori.adventure.text.format.Style;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 public class ComponentUtil {
 
     private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
 
+    // Parsed components are immutable, so identical inputs can share one instance
+    private static final int MAX_CACHED_COMPONENTS = 512;
+    private static final Map<String, Component> COMPONENT_CACHE = Collections.synchronizedMap(
+            new LinkedHashMap<>(64, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Component> eldest) {
+                    return size() > MAX_CACHED_COMPONENTS;
+                }
+            });
+    private static final Map<String, String> GRADIENT_TEMPLATES = new ConcurrentHashMap<>();
+    private static final String RAINBOW_TEMPLATE = "<rainbow><text></rainbow>";
+    private static final Map<String, String> PULSE_TEMPLATES = new ConcurrentHashMap<>();
+
     // Brand colors for DoubleLife
     public static final TextColor PRIMARY_COLOR = TextColor.fromHexString("#FFD700"); // Gold
     public static final TextColor SECONDARY_COLOR = TextColor.fromHexString("#FF6B35"); // Orange-Red  
@@ -22,31 +40,40 @@ public class ComponentUtil {
     public static final TextColor WARNING_COLOR = TextColor.fromHexString("#FFA726"); // Orange
     public static final TextColor ERROR_COLOR = TextColor.fromHexString("#EF5350"); // Red
 
+    private static final Component PREFIX = Component.text()
+            .append(Component.text("[", NamedTextColor.DARK_GRAY))
+            .append(gradient("DoubleLife", "#FFD700", "#FF6B35"))
+            .append(Component.text("]", NamedTextColor.DARK_GRAY))
+            .append(Component.space())
+            .build();
+
+    private static final Component DIVIDER = Component.text()
+            .content("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━")
+            .color(NamedTextColor.DARK_GRAY)
+            .decoration(TextDecoration.ITALIC, false)
+            .build();
+
     /**
      * Creates a gradient text component using MiniMessage
      */
     public static Component gradient(String text, String fromColor, String toColor) {
-        String gradientText = "<gradient:" + fromColor + ":" + toColor + ">" + text + "</gradient>";
-        return MINI_MESSAGE.deserialize(gradientText);
+        String template = GRADIENT_TEMPLATES.computeIfAbsent(fromColor + ":" + toColor,
+                colors -> "<gradient:" + colors + "><text></gradient>");
+        return cached(template, text);
     }
 
     /**
      * Creates a rainbow gradient text
      */
     public static Component rainbow(String text) {
-        return MINI_MESSAGE.deserialize("<rainbow>" + text + "</rainbow>");
+        return cached(RAINBOW_TEMPLATE, text);
     }
 
     /**
      * Creates the main plugin prefix with gradient
      */
     public static Component pluginPrefix() {
-        return Component.text()
-                .append(Component.text("[", NamedTextColor.DARK_GRAY))
-                .append(gradient("DoubleLife", "#FFD700", "#FF6B35"))
-                .append(Component.text("]", NamedTextColor.DARK_GRAY))
-                .append(Component.space())
-                .build();
+        return PREFIX;
     }
 
     /**
@@ -54,7 +81,7 @@ public class ComponentUtil {
      */
     public static Component success(String message) {
         return Component.text()
-                .append(pluginPrefix())
+                .append(PREFIX)
                 .append(Component.text(message, SUCCESS_COLOR))
                 .build();
     }
@@ -64,7 +91,7 @@ public class ComponentUtil {
      */
     public static Component warning(String message) {
         return Component.text()
-                .append(pluginPrefix())
+                .append(PREFIX)
                 .append(Component.text(message, WARNING_COLOR))
                 .build();
     }
@@ -74,7 +101,7 @@ public class ComponentUtil {
      */
     public static Component error(String message) {
         return Component.text()
-                .append(pluginPrefix())
+                .append(PREFIX)
                 .append(Component.text(message, ERROR_COLOR))
                 .build();
     }
@@ -84,7 +111,7 @@ public class ComponentUtil {
      */
     public static Component info(String message) {
         return Component.text()
-                .append(pluginPrefix())
+                .append(PREFIX)
                 .append(Component.text(message, NamedTextColor.WHITE))
                 .build();
     }
@@ -152,7 +179,9 @@ public class ComponentUtil {
      * Creates an animated/pulsing text effect using MiniMessage
      */
     public static Component pulse(String text, String color) {
-        return MINI_MESSAGE.deserialize("<color:" + color + "><bold>" + text + "</bold></color>");
+        String template = PULSE_TEMPLATES.computeIfAbsent(color,
+                c -> "<color:" + c + "><bold><text></bold></color>");
+        return cached(template, text);
     }
 
     /**
@@ -233,10 +262,19 @@ public class ComponentUtil {
      * Creates a divider line for GUI sections
      */
     public static Component divider() {
-        return Component.text()
-                .content("━━━━━━━━━━━━━━━━━━━━━━━━━━━━━━")
-                .color(NamedTextColor.DARK_GRAY)
-                .decoration(TextDecoration.ITALIC, false)
-                .build();
+        return DIVIDER;
+    }
+
+    /**
+     * Resolves a template with the text placeholder, reusing the parsed component when seen recently
+     */
+    private static Component cached(String template, String text) {
+        String key = template + '\u0000' + text;
+        Component component = COMPONENT_CACHE.get(key);
+        if (component == null) {
+            component = MINI_MESSAGE.deserialize(template, Placeholder.parsed("text", text));
+            COMPONENT_CACHE.put(key, component);
+        }
+        return component;
     }
 }
\ No newline at end of file
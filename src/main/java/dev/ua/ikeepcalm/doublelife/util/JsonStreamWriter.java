@@ -0,0 +1,183 @@
+package dev.ua.ikeepcalm.doublelife.util;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.BitSet;
+
+/**
+ * Minimal streaming JSON encoder for webhook payloads. Strings are escaped in a single pass straight into the
+ * output, including every control character below 0x20, and a string value can be streamed from a {@link Reader}
+ * so large logs are never held in memory as one JSON string.
+ * Separators are tracked per nesting level; the caller is responsible for a well-formed sequence of calls.
+ */
+public final class JsonStreamWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int READ_BUFFER_SIZE = 8192;
+    private static final int MAX_DEPTH = 32;
+
+    private final Writer out;
+    // Set for every open level that already holds an element, so the next one is preceded by a comma
+    private final BitSet hasElements = new BitSet(MAX_DEPTH);
+    private int depth;
+    private boolean afterName;
+
+    public JsonStreamWriter(Writer out) {
+        this.out = out;
+    }
+
+    public JsonStreamWriter(OutputStream out) {
+        this(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)));
+    }
+
+    public JsonStreamWriter beginObject() throws IOException {
+        return open('{');
+    }
+
+    public JsonStreamWriter endObject() throws IOException {
+        return close('}');
+    }
+
+    public JsonStreamWriter beginArray() throws IOException {
+        return open('[');
+    }
+
+    public JsonStreamWriter endArray() throws IOException {
+        return close(']');
+    }
+
+    public JsonStreamWriter name(String name) throws IOException {
+        separate();
+        writeString(name);
+        out.write(':');
+        afterName = true;
+        return this;
+    }
+
+    public JsonStreamWriter value(String value) throws IOException {
+        if (value == null) {
+            return rawValue("null");
+        }
+        separate();
+        writeString(value);
+        return this;
+    }
+
+    public JsonStreamWriter value(long value) throws IOException {
+        return rawValue(Long.toString(value));
+    }
+
+    public JsonStreamWriter value(boolean value) throws IOException {
+        return rawValue(value ? "true" : "false");
+    }
+
+    /**
+     * Writes the remaining content of the reader as one string value without buffering all of it
+     */
+    public JsonStreamWriter value(Reader reader) throws IOException {
+        separate();
+        out.write('"');
+        char[] buffer = new char[READ_BUFFER_SIZE];
+        int read;
+        while ((read = reader.read(buffer)) != -1) {
+            escape(buffer, 0, read, out);
+        }
+        out.write('"');
+        return this;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    /**
+     * Escapes text for use inside a JSON string literal, without the surrounding quotes
+     */
+    public static void escape(CharSequence text, Writer out) throws IOException {
+        int length = text.length();
+        int runStart = 0;
+        for (int i = 0; i < length; i++) {
+            String replacement = replacement(text.charAt(i));
+            if (replacement != null) {
+                out.append(text, runStart, i);
+                out.write(replacement);
+                runStart = i + 1;
+            }
+        }
+        out.append(text, runStart, length);
+    }
+
+    private static void escape(char[] chars, int offset, int length, Writer out) throws IOException {
+        int end = offset + length;
+        int runStart = offset;
+        for (int i = offset; i < end; i++) {
+            String replacement = replacement(chars[i]);
+            if (replacement != null) {
+                out.write(chars, runStart, i - runStart);
+                out.write(replacement);
+                runStart = i + 1;
+            }
+        }
+        out.write(chars, runStart, end - runStart);
+    }
+
+    private static String replacement(char c) {
+        if (c >= 0x20 && c != '"' && c != '\\' && c != '\u2028' && c != '\u2029') {
+            return null;
+        }
+        return switch (c) {
+            case '"' -> "\\\"";
+            case '\\' -> "\\\\";
+            case '\n' -> "\\n";
+            case '\r' -> "\\r";
+            case '\t' -> "\\t";
+            case '\b' -> "\\b";
+            case '\f' -> "\\f";
+            // Remaining control characters, plus the line separators JavaScript parsers choke on
+            default -> new String(new char[]{'\\', 'u', HEX[c >> 12 & 0xF], HEX[c >> 8 & 0xF], HEX[c >> 4 & 0xF], HEX[c & 0xF]});
+        };
+    }
+
+    private JsonStreamWriter open(char bracket) throws IOException {
+        separate();
+        out.write(bracket);
+        hasElements.clear(++depth);
+        return this;
+    }
+
+    private JsonStreamWriter close(char bracket) throws IOException {
+        depth--;
+        out.write(bracket);
+        return this;
+    }
+
+    private JsonStreamWriter rawValue(String literal) throws IOException {
+        separate();
+        out.write(literal);
+        return this;
+    }
+
+    private void writeString(String value) throws IOException {
+        out.write('"');
+        escape(value, out);
+        out.write('"');
+    }
+
+    private void separate() throws IOException {
+        if (afterName) {
+            afterName = false;
+            return;
+        }
+        if (depth > 0) {
+            if (hasElements.get(depth)) {
+                out.write(',');
+            }
+            hasElements.set(depth);
+        }
+    }
+}
@@ -3,96 +3,120 @@ package dev.ua.ikeepcalm.doublelife.util;
 import dev.ua.ikeepcalm.doublelife.DoubleLife;
 import dev.ua.ikeepcalm.doublelife.domain.model.ActivityLog;
 import dev.ua.ikeepcalm.doublelife.domain.model.source.DoubleLifeMode;
-import dev.ua.ikeepcalm.doublelife.domain.model.SessionData;
+import dev.ua.ikeepcalm.doublelife.domain.model.SessionSnapshot;
 import dev.ua.ikeepcalm.doublelife.domain.model.source.ActivityType;
-import org.bukkit.Bukkit;
-import org.bukkit.entity.Player;
 
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.text.SimpleDateFormat;
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.Date;
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 public class LogWriter {
 
     private final DoubleLife plugin;
-    private final SessionData session;
+    private final SessionSnapshot session;
     private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
     private final DateTimeFormatter timeFormat = DateTimeFormatter.ofPattern("HH:mm:ss");
 
-    public LogWriter(DoubleLife plugin, SessionData session) {
+    public LogWriter(DoubleLife plugin, SessionSnapshot session) {
         this.plugin = plugin;
         this.session = session;
     }
 
-    public void writeLog() {
-        Player player = Bukkit.getPlayer(session.getPlayerId());
-        String playerName = player != null ? player.getName() : session.getPlayerId().toString();
-
-        String filename = playerName + "-" + dateFormat.format(new Date()) + ".log";
+    /**
+     * Streams the formatted log into a new file under logs/ and returns it, or null if writing failed
+     */
+    public File writeLog() {
+        String filename = session.getPlayerName() + "-" + dateFormat.format(new Date()) + ".log";
         File logDir = new File(plugin.getDataFolder(), "logs");
         if (!logDir.exists()) {
             logDir.mkdirs();
         }
 
         File logFile = new File(logDir, filename);
-        String logContent = formatLog();
-
-        try (FileWriter writer = new FileWriter(logFile)) {
-            writer.write(logContent);
+        try (Writer writer = Files.newBufferedWriter(logFile.toPath(), StandardCharsets.UTF_8)) {
+            formatLog(writer);
             plugin.getLogger().info("Log written: " + filename);
-        } catch (IOException e) {
+            return logFile;
+        } catch (IOException | UncheckedIOException e) {
             plugin.getLogger().severe("Failed to write log: " + e.getMessage());
+            return null;
         }
-
-        plugin.getWebhookUtil().sendLog(playerName, logContent, session);
     }
 
-    private String formatLog() {
+    public void formatLog(Writer out) throws IOException {
         StringBuilder log = new StringBuilder();
 
         log.append("# DOUBLE LIFE SESSION LOG (").append(session.getMode().getDisplayName().toUpperCase()).append(")\n```");
-        log.append("Player: ").append(getPlayerName()).append("\n");
+        log.append("Player: ").append(session.getPlayerName()).append("\n");
         log.append("UUID: ").append(session.getPlayerId()).append("\n");
         log.append("Mode: ").append(session.getMode().getDisplayName()).append("\n");
         log.append("Start Time: ").append(session.getStartTime()).append("\n");
         log.append("End Time: ").append(session.getEndTime()).append("\n");
         log.append("Duration: ").append(formatDuration()).append("\n");
-        log.append("Total Activities: ").append(session.getActivities().size()).append("\n");
+        log.append("Total Activities: ").append(session.getActivityCount()).append("\n");
         log.append("```\n");
 
         log.append("# SAVED STATE \n```");
-        log.append("Location: ").append(formatLocation(session.getSavedState().getLocation())).append("\n");
-        log.append("GameMode: ").append(session.getSavedState().getGameMode()).append("\n");
-        log.append("Level: ").append(session.getSavedState().getLevel()).append("\n");
-        log.append("Health: ").append(session.getSavedState().getHealth()).append("\n");
-        log.append("Food Level: ").append(session.getSavedState().getFoodLevel()).append("\n");
+        log.append("Location: ").append(session.getSavedLocation()).append("\n");
+        log.append("GameMode: ").append(session.getSavedGameMode()).append("\n");
+        log.append("Level: ").append(session.getSavedLevel()).append("\n");
+        log.append("Health: ").append(session.getSavedHealth()).append("\n");
+        log.append("Food Level: ").append(session.getSavedFoodLevel()).append("\n");
         log.append("```\n");
 
         log.append("# ACTIVITY LOG \n```");
-        for (ActivityLog activity : session.getActivities()) {
-            log.append("[").append(activity.getTimestamp().atZone(ZoneId.systemDefault()).format(timeFormat)).append("] ");
-            log.append(activity.getType().getDisplayName()).append(": ");
-            log.append(activity.getDetails());
-            if (activity.getLocation() != null && !activity.getLocation().isEmpty()) {
-                log.append(" @ ").append(activity.getLocation());
-            }
-            log.append("\n");
+        out.append(log);
+
+        // Activities are streamed from the journal one line at a time
+        StringBuilder line = new StringBuilder(128);
+        try {
+            session.forEachActivity(activity -> {
+                line.setLength(0);
+                line.append("[").append(activity.getTimestamp().atZone(ZoneId.systemDefault()).format(timeFormat)).append("] ");
+                line.append(activity.getType().getDisplayName()).append(": ");
+                line.append(activity.getDetails());
+                if (activity.getLocation() != null && !activity.getLocation().isEmpty()) {
+                    line.append(" @ ").append(activity.getLocation());
+                }
+                line.append("\n");
+                try {
+                    out.append(line);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to read activity journal: " + e.getMessage());
+            out.append("[Activity journal could not be read: ").append(e.getMessage()).append("]\n");
         }
 
-        log.append("```\n=== END OF LOG ===");
+        out.append("```\n");
 
-        return log.toString();
-    }
+        if (!session.getMergedCounts().isEmpty() || !session.getDroppedCounts().isEmpty()) {
+            out.append("# SAMPLING \n```");
+            for (ActivityType type : ActivityType.values()) {
+                int merged = session.getMergedCounts().getOrDefault(type, 0);
+                int dropped = session.getDroppedCounts().getOrDefault(type, 0);
+                if (merged > 0 || dropped > 0) {
+                    out.append(type.getDisplayName()).append(": ").append(String.valueOf(merged)).append(" merged, ")
+                            .append(String.valueOf(dropped)).append(" over rate limit\n");
+                }
+            }
+            out.append("```\n");
+        }
 
-    private String getPlayerName() {
-        Player player = Bukkit.getPlayer(session.getPlayerId());
-        return player != null ? player.getName() : "Unknown";
+        out.append("=== END OF LOG ===");
     }
 
     private String formatDuration() {
@@ -101,21 +125,8 @@ public class LogWriter {
         return String.format("%d minutes, %d seconds", minutes, seconds);
     }
 
-    private String formatLocation(org.bukkit.Location loc) {
-        if (loc == null) return "Unknown";
-        return String.format("%s [%d, %d, %d]",
-                loc.getWorld().getName(),
-                loc.getBlockX(),
-                loc.getBlockY(),
-                loc.getBlockZ());
-    }
-
     public String generateActivitySummary() {
-        Map<ActivityType, Integer> activityCounts = new HashMap<>();
-        
-        for (ActivityLog activity : session.getActivities()) {
-            activityCounts.merge(activity.getType(), 1, Integer::sum);
-        }
+        Map<ActivityType, Integer> activityCounts = session.getActivityCounts();
         
         StringBuilder summary = new StringBuilder();
         summary.append("**Activity Summary:**\n");
@@ -177,9 +188,9 @@ public class LogWriter {
         log.append("# ").append(modeEmoji).append(" DOUBLE LIFE SESSION (").append(session.getMode().getDisplayName().toUpperCase()).append(")\n");
         
         // Basic info
-        log.append("**Player:** ").append(getPlayerName()).append("\n");
+        log.append("**Player:** ").append(session.getPlayerName()).append("\n");
         log.append("**Duration:** ").append(formatDuration()).append("\n");
-        log.append("**Total Activities:** ").append(session.getActivities().size()).append("\n\n");
+        log.append("**Total Activities:** ").append(session.getActivityCount()).append("\n\n");
         
         // Activity summary
         log.append(generateActivitySummary()).append("\n");
@@ -188,16 +199,18 @@ public class LogWriter {
         int currentLength = log.length();
         int remainingLength = maxLength - currentLength - 100; // Leave room for closing
         
-        if (session.getActivities().size() > 0 && remainingLength > 200) {
+        int activityCount = session.getActivityCount();
+        if (activityCount > 0 && remainingLength > 200) {
             log.append("**Recent Activities:**\n```\n");
             
             StringBuilder activityLog = new StringBuilder();
             int activitiesShown = 0;
-            int maxActivities = Math.min(10, session.getActivities().size());
+            List<ActivityLog> recentActivities = session.getRecentActivities();
+            int maxActivities = Math.min(10, recentActivities.size());
             
             // Show last N activities
-            for (int i = session.getActivities().size() - 1; i >= 0 && activitiesShown < maxActivities; i--) {
-                ActivityLog activity = session.getActivities().get(i);
+            for (int i = recentActivities.size() - 1; i >= 0 && activitiesShown < maxActivities; i--) {
+                ActivityLog activity = recentActivities.get(i);
                 String activityLine = "[" + activity.getTimestamp().atZone(ZoneId.systemDefault()).format(timeFormat) + "] " +
                                     activity.getType().getDisplayName() + ": " + activity.getDetails();
                 if (activity.getLocation() != null && !activity.getLocation().isEmpty()) {
@@ -215,8 +228,8 @@ public class LogWriter {
             
             log.append(activityLog);
             
-            if (activitiesShown < session.getActivities().size()) {
-                log.append("... and ").append(session.getActivities().size() - activitiesShown).append(" more activities\n");
+            if (activitiesShown < activityCount) {
+                log.append("... and ").append(activityCount - activitiesShown).append(" more activities\n");
             }
             
             log.append("```");
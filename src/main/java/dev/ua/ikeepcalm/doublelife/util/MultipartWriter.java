@@ -0,0 +1,76 @@
+package dev.ua.ikeepcalm.doublelife.util;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Writes a multipart/form-data body part by part, so file parts can be streamed from disk into the request body.
+ */
+public final class MultipartWriter {
+
+    private static final byte[] CRLF = {'\r', '\n'};
+
+    private final OutputStream out;
+    private final String boundary;
+
+    public MultipartWriter(OutputStream out, String boundary) {
+        this.out = out;
+        this.boundary = boundary;
+    }
+
+    public static String newBoundary() {
+        return "DoubleLife-" + UUID.randomUUID().toString().replace("-", "");
+    }
+
+    public static String contentType(String boundary) {
+        return "multipart/form-data; boundary=" + boundary;
+    }
+
+    public void field(String name, String contentType, AtomicFiles.Content content) throws IOException {
+        part("Content-Disposition: form-data; name=\"" + name + "\"", contentType, content);
+    }
+
+    public void file(String name, String fileName, String contentType, AtomicFiles.Content content) throws IOException {
+        part("Content-Disposition: form-data; name=\"" + name + "\"; filename=\"" + fileName.replace("\"", "") + "\"",
+                contentType, content);
+    }
+
+    public void finish() throws IOException {
+        write("--" + boundary + "--");
+        out.write(CRLF);
+        out.flush();
+    }
+
+    private void part(String disposition, String contentType, AtomicFiles.Content content) throws IOException {
+        write("--" + boundary);
+        out.write(CRLF);
+        write(disposition);
+        out.write(CRLF);
+        write("Content-Type: " + contentType);
+        out.write(CRLF);
+        out.write(CRLF);
+
+        // Parts may wrap the stream (for example in a GZIPOutputStream) and close it; the body must stay open
+        OutputStream partOut = new FilterOutputStream(out) {
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+
+            @Override
+            public void close() throws IOException {
+                flush();
+            }
+        };
+        content.writeTo(partOut);
+        partOut.flush();
+        out.write(CRLF);
+    }
+
+    private void write(String line) throws IOException {
+        out.write(line.getBytes(StandardCharsets.UTF_8));
+    }
+}
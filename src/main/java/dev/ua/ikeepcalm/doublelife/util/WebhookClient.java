@@ -0,0 +1,214 @@
+package dev.ua.ikeepcalm.doublelife.util;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Shared HTTP client for outgoing webhooks. Connections are pooled and kept alive (HTTP/2 where the server offers
+ * it), every request has connect and response timeouts, and failed attempts are retried with exponential backoff
+ * and full jitter. Each route has a token bucket that follows Discord's X-RateLimit headers and 429 Retry-After, so
+ * bursts are delayed locally instead of being rejected by the server.
+ * Runs on its own daemon threads, never on Bukkit's scheduler.
+ */
+public class WebhookClient {
+
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final int MAX_ATTEMPTS = 5;
+    private static final long BASE_BACKOFF_MILLIS = 500;
+    private static final long MAX_BACKOFF_MILLIS = 30_000;
+
+    // Used until a route has reported its own limits; matches Discord's usual webhook bucket
+    private static final int DEFAULT_LIMIT = 5;
+    private static final long DEFAULT_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(2);
+
+    private final Logger logger;
+    private final ScheduledExecutorService executor;
+    private final HttpClient client;
+    private final Map<String, RouteLimiter> routes = new ConcurrentHashMap<>();
+    private volatile long globalBlockedUntil;
+
+    public WebhookClient(Logger logger) {
+        this.logger = logger;
+        this.executor = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "DoubleLife-Webhook");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Starts a request builder with the default response timeout applied
+     */
+    public HttpRequest.Builder request(URI uri) {
+        return HttpRequest.newBuilder(uri).timeout(REQUEST_TIMEOUT);
+    }
+
+    /**
+     * Sends a request, retrying connection failures, 5xx and 429 responses. Completes with the last response once it
+     * is final or the attempts are used up, or exceptionally if the last attempt failed to connect.
+     */
+    public CompletableFuture<HttpResponse<String>> send(HttpRequest request) {
+        CompletableFuture<HttpResponse<String>> result = new CompletableFuture<>();
+        attempt(request, routes.computeIfAbsent(route(request.uri()), route -> new RouteLimiter()), 1, result);
+        return result;
+    }
+
+    /**
+     * Stops accepting requests and gives the ones in flight a moment to finish
+     */
+    public void shutdown() {
+        client.shutdown();
+        try {
+            if (!client.awaitTermination(SHUTDOWN_TIMEOUT)) {
+                logger.warning("Timed out waiting for webhook requests to finish");
+                client.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            client.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+    }
+
+    private void attempt(HttpRequest request, RouteLimiter limiter, int attempt, CompletableFuture<HttpResponse<String>> result) {
+        long wait = Math.max(globalBlockedUntil - System.nanoTime(), limiter.tryAcquire());
+        if (wait > 0) {
+            executor.schedule(() -> attempt(request, limiter, attempt, result), wait, TimeUnit.NANOSECONDS);
+            return;
+        }
+
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofString()).whenComplete((response, error) -> {
+            if (error != null) {
+                if (attempt < MAX_ATTEMPTS) {
+                    retry(request, limiter, attempt, result, backoffNanos(attempt));
+                } else {
+                    result.completeExceptionally(error);
+                }
+                return;
+            }
+
+            limiter.update(response);
+
+            int status = response.statusCode();
+            if (status == 429 && attempt < MAX_ATTEMPTS) {
+                long retryAfter = retryAfterNanos(response);
+                if (response.headers().firstValue("X-RateLimit-Global").map(Boolean::parseBoolean).orElse(false)) {
+                    globalBlockedUntil = System.nanoTime() + retryAfter;
+                } else {
+                    limiter.block(retryAfter);
+                }
+                retry(request, limiter, attempt, result, 0);
+            } else if (status >= 500 && attempt < MAX_ATTEMPTS) {
+                retry(request, limiter, attempt, result, backoffNanos(attempt));
+            } else {
+                result.complete(response);
+            }
+        });
+    }
+
+    private void retry(HttpRequest request, RouteLimiter limiter, int attempt, CompletableFuture<HttpResponse<String>> result, long delayNanos) {
+        executor.schedule(() -> attempt(request, limiter, attempt + 1, result), delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static long backoffNanos(int attempt) {
+        long ceiling = Math.min(MAX_BACKOFF_MILLIS, BASE_BACKOFF_MILLIS << (attempt - 1));
+        return TimeUnit.MILLISECONDS.toNanos(ThreadLocalRandom.current().nextLong(ceiling + 1));
+    }
+
+    private static long retryAfterNanos(HttpResponse<?> response) {
+        OptionalDouble seconds = header(response, "Retry-After");
+        if (seconds.isEmpty()) {
+            seconds = header(response, "X-RateLimit-Reset-After");
+        }
+        return seconds.isPresent() ? secondsToNanos(seconds.getAsDouble()) : TimeUnit.MILLISECONDS.toNanos(MAX_BACKOFF_MILLIS);
+    }
+
+    private static OptionalDouble header(HttpResponse<?> response, String name) {
+        try {
+            return response.headers().firstValue(name).map(value -> OptionalDouble.of(Double.parseDouble(value))).orElse(OptionalDouble.empty());
+        } catch (NumberFormatException e) {
+            return OptionalDouble.empty();
+        }
+    }
+
+    private static long secondsToNanos(double seconds) {
+        return (long) (Math.max(0, seconds) * 1_000_000_000L);
+    }
+
+    /**
+     * Requests to the same webhook share one bucket; the query string does not change the route
+     */
+    private static String route(URI uri) {
+        return uri.getScheme() + "://" + uri.getAuthority() + uri.getRawPath();
+    }
+
+    /**
+     * Token bucket for one route. Starts with a conservative default and adopts the limit, remaining count and reset
+     * time reported by the server once it sends them.
+     */
+    private static final class RouteLimiter {
+
+        private int limit = DEFAULT_LIMIT;
+        private int remaining = DEFAULT_LIMIT;
+        private long resetAt;
+
+        /**
+         * Takes a token, returning 0, or returns how many nanoseconds to wait before trying again
+         */
+        synchronized long tryAcquire() {
+            long now = System.nanoTime();
+            if (now >= resetAt) {
+                remaining = limit;
+                resetAt = now + DEFAULT_WINDOW_NANOS;
+            }
+            if (remaining > 0) {
+                remaining--;
+                return 0;
+            }
+            return resetAt - now;
+        }
+
+        synchronized void update(HttpResponse<?> response) {
+            OptionalDouble reportedLimit = header(response, "X-RateLimit-Limit");
+            OptionalDouble reportedRemaining = header(response, "X-RateLimit-Remaining");
+            OptionalDouble resetAfter = header(response, "X-RateLimit-Reset-After");
+            if (reportedLimit.isPresent()) {
+                limit = Math.max(1, (int) reportedLimit.getAsDouble());
+            }
+            if (reportedRemaining.isPresent()) {
+                remaining = Math.min(remaining, (int) reportedRemaining.getAsDouble());
+            }
+            if (resetAfter.isPresent()) {
+                resetAt = System.nanoTime() + secondsToNanos(resetAfter.getAsDouble());
+            }
+        }
+
+        /**
+         * Empties the bucket until the server's Retry-After has passed, replacing the window assumed locally
+         */
+        synchronized void block(long nanos) {
+            remaining = 0;
+            resetAt = System.nanoTime() + nanos;
+        }
+    }
+}
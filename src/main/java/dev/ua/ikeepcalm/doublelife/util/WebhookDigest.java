@@ -0,0 +1,132 @@
+package dev.ua.ikeepcalm.doublelife.util;
+
+import dev.ua.ikeepcalm.doublelife.DoubleLife;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects Discord embeds over the configured digest window and sends them as few messages as possible, so a burst
+ * of activations and session ends during a shift change costs a handful of requests instead of one each.
+ */
+public class WebhookDigest {
+
+    // Discord accepts at most 10 embeds and 6000 characters of embed text per message
+    private static final int MAX_EMBEDS_PER_MESSAGE = 10;
+    private static final int MAX_CHARACTERS_PER_MESSAGE = 6000;
+
+    private final DoubleLife plugin;
+    private final WebhookSpool spool;
+    private final ScheduledExecutorService scheduler;
+
+    private final List<Embed> pending = new ArrayList<>();
+    private boolean mention;
+    private boolean flushScheduled;
+
+    public record Embed(String title, String description, int color, String timestamp, String footer) {
+
+        int length() {
+            return title.length() + description.length() + footer.length();
+        }
+    }
+
+    public WebhookDigest(DoubleLife plugin, WebhookSpool spool) {
+        this.plugin = plugin;
+        this.spool = spool;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DoubleLife-WebhookDigest");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds an embed to the current window, opening a new window if none is pending
+     */
+    public synchronized void add(Embed embed, boolean mention) {
+        pending.add(embed);
+        this.mention |= mention;
+        if (!flushScheduled) {
+            flushScheduled = true;
+            scheduler.schedule(this::flush, plugin.getPluginConfig().getDiscordDigestWindowSeconds(), TimeUnit.SECONDS);
+        }
+    }
+
+    public synchronized int getPendingEmbeds() {
+        return pending.size();
+    }
+
+    /**
+     * Sends what is pending right away; called at the end of a window and on shutdown
+     */
+    public void flush() {
+        List<Embed> batch;
+        boolean batchMention;
+        synchronized (this) {
+            batch = new ArrayList<>(pending);
+            batchMention = mention;
+            pending.clear();
+            mention = false;
+            flushScheduled = false;
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        String webhookUrl = plugin.getPluginConfig().getDiscordWebhookUrl();
+        if (webhookUrl.isEmpty()) {
+            return;
+        }
+
+        try {
+            int start = 0;
+            while (start < batch.size()) {
+                int end = start;
+                int characters = 0;
+                while (end < batch.size() && end - start < MAX_EMBEDS_PER_MESSAGE
+                        && (end == start || characters + batch.get(end).length() <= MAX_CHARACTERS_PER_MESSAGE)) {
+                    characters += batch.get(end).length();
+                    end++;
+                }
+                enqueue(batch.subList(start, end), batchMention && start == 0, batch.size());
+                start = end;
+            }
+        } catch (IllegalArgumentException e) {
+            plugin.getLogger().severe("Error sending Discord digest: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Sends the last window and stops the timer; must run before the spool is shut down
+     */
+    public void shutdown() {
+        scheduler.shutdownNow();
+        flush();
+    }
+
+    private void enqueue(List<Embed> embeds, boolean mention, int total) {
+        String content = (mention ? "@here " : "") + "📋 **Double Life Digest** (" + total + (total == 1 ? " event)" : " events)");
+
+        spool.enqueue(new WebhookSpool.Request("Discord digest", WebhookSpool.Target.DISCORD, "POST", "application/json"), out -> {
+            JsonStreamWriter json = new JsonStreamWriter(out);
+            json.beginObject()
+                    .name("content").value(content)
+                    .name("embeds").beginArray();
+            for (Embed embed : embeds) {
+                json.beginObject()
+                        .name("title").value(embed.title())
+                        .name("description").value(embed.description())
+                        .name("color").value(embed.color())
+                        .name("timestamp").value(embed.timestamp())
+                        .name("footer").beginObject()
+                        .name("text").value(embed.footer())
+                        .endObject()
+                        .endObject();
+            }
+            json.endArray().endObject().flush();
+        });
+    }
+}
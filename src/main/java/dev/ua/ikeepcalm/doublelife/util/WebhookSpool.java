@@ -0,0 +1,444 @@
+package dev.ua.ikeepcalm.doublelife.util;
+
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Durable outbound queue for webhooks. Every payload is persisted under spool/ before it is sent: first the body
+ * file, then the meta file, which acts as the commit record. A single delivery worker sends the entries in order
+ * and removes them only after a 2xx response; other failures keep the entry and back the worker off, so nothing is
+ * lost while an endpoint is down and the queue survives restarts.
+ * Entries that can never succeed (rejected by the endpoint with a 4xx other than 429, or not a valid HTTP request)
+ * would block the queue forever and are moved to spool/failed/ instead of being deleted.
+ * Entries only name their target; its URL and headers, which are secrets, are resolved from the current config
+ * each time an entry is sent and never written to disk.
+ */
+public class WebhookSpool {
+
+    private static final String META_SUFFIX = ".meta";
+    private static final String BODY_SUFFIX = ".body";
+    private static final String FAILED_FOLDER = "failed";
+    private static final String CONTENT_TYPE_HEADER = "Content-Type";
+
+    private static final long MIN_BACKOFF_MILLIS = 5_000;
+    private static final long MAX_BACKOFF_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+
+    private final Logger logger;
+    private final WebhookClient client;
+    private final Path folder;
+    private final Function<Target, Endpoint> endpoints;
+    private final ExecutorService writer;
+    private final ScheduledExecutorService worker;
+
+    private final ConcurrentSkipListMap<Long, Entry> entries = new ConcurrentSkipListMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private long backoffMillis = MIN_BACKOFF_MILLIS;
+
+    private final LongAdder deliveredEntries = new LongAdder();
+    private final LongAdder failedAttempts = new LongAdder();
+    private final LongAdder rejectedEntries = new LongAdder();
+    private final LongAdder totalLatencyMillis = new LongAdder();
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
+
+    public enum Target {
+        DISCORD,
+        CALLBACK
+    }
+
+    /**
+     * Where a target currently points; the headers are sent after, and may override, the request's content type
+     */
+    public record Endpoint(URI uri, Map<String, String> headers) {
+    }
+
+    /**
+     * A queued request. The body is kept on disk and streamed from there when the entry is sent.
+     */
+    public record Request(String description, Target target, String method, String contentType) {
+    }
+
+    private record Entry(long sequence, Request request, long createdAt) {
+    }
+
+    /**
+     * @param endpoints resolves a target from the current config; throws IllegalArgumentException if it is not set
+     */
+    public WebhookSpool(Logger logger, WebhookClient client, Path folder, Function<Target, Endpoint> endpoints) {
+        this.logger = logger;
+        this.client = client;
+        this.folder = folder;
+        this.endpoints = endpoints;
+        this.writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DoubleLife-SpoolWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "DoubleLife-SpoolDelivery");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        recover();
+        signal();
+    }
+
+    /**
+     * Persists a request and queues it for delivery. Returns immediately; the files are written on the spool's own
+     * thread, in the order the requests were enqueued.
+     *
+     * @throws IllegalArgumentException if the target is not configured or the request can never be a valid HTTP request
+     */
+    public void enqueue(Request request, AtomicFiles.Content body) {
+        buildRequest(request, HttpRequest.BodyPublishers.noBody());
+        long createdAt = System.currentTimeMillis();
+
+        writer.execute(() -> {
+            // Taken on the writer thread so sequence order is the order entries become visible to the worker
+            long entrySequence = sequence.incrementAndGet();
+            try {
+                AtomicFiles.write(bodyFile(entrySequence), body);
+
+                writeMeta(metaFile(entrySequence), request, createdAt);
+
+                entries.put(entrySequence, new Entry(entrySequence, request, createdAt));
+                signal();
+            } catch (IOException e) {
+                logger.severe("Failed to spool " + request.description() + ": " + e.getMessage());
+                deleteQuietly(bodyFile(entrySequence));
+            }
+        });
+    }
+
+    /**
+     * Finishes persisting the enqueued requests and stops delivery; whatever is left is sent after the next start
+     */
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warning("Timed out persisting queued webhooks");
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        worker.shutdownNow();
+    }
+
+    public int getQueueDepth() {
+        return entries.size();
+    }
+
+    public long getOldestEntryAgeMillis() {
+        Map.Entry<Long, Entry> oldest = entries.firstEntry();
+        return oldest == null ? 0 : System.currentTimeMillis() - oldest.getValue().createdAt();
+    }
+
+    public long getDeliveredEntries() {
+        return deliveredEntries.sum();
+    }
+
+    public long getFailedAttempts() {
+        return failedAttempts.sum();
+    }
+
+    public long getRejectedEntries() {
+        return rejectedEntries.sum();
+    }
+
+    public long getAverageLatencyMillis() {
+        long delivered = deliveredEntries.sum();
+        return delivered == 0 ? 0 : totalLatencyMillis.sum() / delivered;
+    }
+
+    public long getMaxLatencyMillis() {
+        return maxLatencyMillis.get();
+    }
+
+    private void signal() {
+        if (draining.compareAndSet(false, true)) {
+            worker.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Map.Entry<Long, Entry> next = entries.firstEntry();
+            if (next == null) {
+                draining.set(false);
+                // An entry may have been added between the check and the reset
+                if (entries.isEmpty() || !draining.compareAndSet(false, true)) {
+                    return;
+                }
+                continue;
+            }
+
+            if (!deliver(next.getValue())) {
+                worker.schedule(this::drain, backoffMillis, TimeUnit.MILLISECONDS);
+                backoffMillis = Math.min(MAX_BACKOFF_MILLIS, backoffMillis * 2);
+                return;
+            }
+            backoffMillis = MIN_BACKOFF_MILLIS;
+        }
+    }
+
+    /**
+     * Sends one entry; returns false when it has to be retried later
+     */
+    private boolean deliver(Entry entry) {
+        Request request = entry.request();
+        HttpRequest httpRequest;
+        try {
+            httpRequest = buildRequest(request, HttpRequest.BodyPublishers.ofFile(bodyFile(entry.sequence())));
+        } catch (IllegalArgumentException e) {
+            failedAttempts.increment();
+            rejectedEntries.increment();
+            logger.warning(request.description() + " cannot be sent, moved to the failed spool: " + e.getMessage());
+            moveToFailed(entry);
+            return true;
+        } catch (IOException e) {
+            failedAttempts.increment();
+            logger.warning("Failed to read spooled " + request.description() + ", will retry: " + e.getMessage());
+            return false;
+        }
+
+        HttpResponse<String> response;
+        try {
+            response = client.send(httpRequest).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException e) {
+            failedAttempts.increment();
+            logger.warning("Failed to send " + request.description() + ", will retry: " + e.getMessage());
+            return false;
+        }
+
+        int status = response.statusCode();
+        if (status >= 200 && status < 300) {
+            long latency = System.currentTimeMillis() - entry.createdAt();
+            deliveredEntries.increment();
+            totalLatencyMillis.add(latency);
+            maxLatencyMillis.accumulateAndGet(latency, Math::max);
+            logger.info(request.description() + " sent successfully");
+            remove(entry);
+            return true;
+        }
+
+        failedAttempts.increment();
+        if (status >= 400 && status < 500 && status != 429) {
+            rejectedEntries.increment();
+            logger.warning(request.description() + " was rejected with " + status + ", moved to the failed spool");
+            moveToFailed(entry);
+            return true;
+        }
+
+        logger.warning(request.description() + " failed: " + status + ", will retry");
+        return false;
+    }
+
+    private HttpRequest buildRequest(Request request, HttpRequest.BodyPublisher body) {
+        Endpoint endpoint = endpoints.apply(request.target());
+        Map<String, String> headers = new LinkedHashMap<>();
+        headers.put(CONTENT_TYPE_HEADER, request.contentType());
+        endpoint.headers().forEach((name, value) -> {
+            // Configured headers replace the content type whatever their case, as they did before it was split out
+            if (name.equalsIgnoreCase(CONTENT_TYPE_HEADER)) {
+                headers.remove(CONTENT_TYPE_HEADER);
+            }
+            headers.put(name, value);
+        });
+
+        HttpRequest.Builder builder = client.request(endpoint.uri()).method(request.method(), body);
+        headers.forEach(builder::header);
+        return builder.build();
+    }
+
+    private static void writeMeta(Path metaFile, Request request, long createdAt) throws IOException {
+        YamlConfiguration meta = new YamlConfiguration();
+        meta.set("description", request.description());
+        meta.set("target", request.target().name().toLowerCase(Locale.ROOT));
+        meta.set("method", request.method());
+        meta.set("content-type", request.contentType());
+        meta.set("created-at", createdAt);
+        AtomicFiles.write(metaFile, meta.saveToString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void remove(Entry entry) {
+        entries.remove(entry.sequence());
+        deleteQuietly(metaFile(entry.sequence()));
+        deleteQuietly(bodyFile(entry.sequence()));
+    }
+
+    private void moveToFailed(Entry entry) {
+        entries.remove(entry.sequence());
+        try {
+            Path failed = Files.createDirectories(folder.resolve(FAILED_FOLDER));
+            // Body first, so the meta file still marks a complete entry if this is interrupted
+            for (Path file : List.of(bodyFile(entry.sequence()), metaFile(entry.sequence()))) {
+                Files.move(file, failed.resolve(file.getFileName()), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to move rejected webhook to the failed spool: " + e.getMessage());
+            remove(entry);
+        }
+    }
+
+    private void recover() {
+        try {
+            Files.createDirectories(folder);
+        } catch (IOException e) {
+            logger.severe("Failed to create webhook spool folder: " + e.getMessage());
+            return;
+        }
+
+        try (Stream<Path> files = Files.list(folder)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(AtomicFiles.TEMP_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(META_SUFFIX)) {
+                    loadEntry(file, Long.parseLong(name.substring(0, name.length() - META_SUFFIX.length())));
+                }
+            }
+
+            // Bodies without a meta file were never committed
+            try (Stream<Path> bodies = Files.list(folder)) {
+                for (Path file : (Iterable<Path>) bodies::iterator) {
+                    String name = file.getFileName().toString();
+                    if (name.endsWith(BODY_SUFFIX)
+                            && !entries.containsKey(Long.parseLong(name.substring(0, name.length() - BODY_SUFFIX.length())))) {
+                        Files.deleteIfExists(file);
+                    }
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            logger.severe("Failed to scan webhook spool: " + e.getMessage());
+        }
+
+        scrubFailed();
+
+        if (!entries.isEmpty()) {
+            sequence.set(entries.lastKey());
+            logger.info("Resuming delivery of " + entries.size() + " spooled webhooks");
+        }
+    }
+
+    private void loadEntry(Path metaFile, long entrySequence) {
+        try {
+            if (!Files.exists(bodyFile(entrySequence))) {
+                logger.warning("Dropping spooled webhook " + metaFile.getFileName() + ": its body is missing");
+                Files.deleteIfExists(metaFile);
+                return;
+            }
+
+            YamlConfiguration meta = new YamlConfiguration();
+            meta.load(metaFile.toFile());
+            Request request = readRequest(meta);
+            long createdAt = meta.getLong("created-at", System.currentTimeMillis());
+            if (isLegacy(meta)) {
+                writeMeta(metaFile, request, createdAt);
+            }
+            entries.put(entrySequence, new Entry(entrySequence, request, createdAt));
+        } catch (Exception e) {
+            logger.warning("Failed to read spooled webhook " + metaFile.getFileName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Older versions stored the URL and headers with each entry; rewrites such meta files in spool/failed/ without them
+     */
+    private void scrubFailed() {
+        Path failed = folder.resolve(FAILED_FOLDER);
+        if (!Files.isDirectory(failed)) {
+            return;
+        }
+
+        try (Stream<Path> files = Files.list(failed)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!file.getFileName().toString().endsWith(META_SUFFIX)) {
+                    continue;
+                }
+                try {
+                    YamlConfiguration meta = new YamlConfiguration();
+                    meta.load(file.toFile());
+                    if (isLegacy(meta)) {
+                        writeMeta(file, readRequest(meta), meta.getLong("created-at", System.currentTimeMillis()));
+                    }
+                } catch (Exception e) {
+                    logger.warning("Failed to scrub failed webhook " + file.getFileName() + ": " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            logger.warning("Failed to scan the failed webhook spool: " + e.getMessage());
+        }
+    }
+
+    private static boolean isLegacy(YamlConfiguration meta) {
+        return meta.contains("uri") || meta.contains("headers");
+    }
+
+    /**
+     * Reads a meta file; entries from older versions are mapped to their target by description
+     */
+    private static Request readRequest(YamlConfiguration meta) {
+        String description = meta.getString("description", "Spooled webhook");
+        String target = meta.getString("target");
+        if (target == null) {
+            target = description.startsWith("HTTP callback") ? "callback" : "discord";
+        }
+        String contentType = meta.getString("content-type", meta.getString("headers.Content-Type", "application/json"));
+        return new Request(description, Target.valueOf(target.toUpperCase(Locale.ROOT)), meta.getString("method", "POST"), contentType);
+    }
+
+    private Path metaFile(long entrySequence) {
+        return folder.resolve(fileName(entrySequence) + META_SUFFIX);
+    }
+
+    private Path bodyFile(long entrySequence) {
+        return folder.resolve(fileName(entrySequence) + BODY_SUFFIX);
+    }
+
+    /**
+     * Zero-padded so a directory listing sorts in delivery order
+     */
+    private static String fileName(long entrySequence) {
+        return String.format("%019d", entrySequence);
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            logger.warning("Failed to delete " + file.getFileName() + ": " + e.getMessage());
+        }
+    }
+}
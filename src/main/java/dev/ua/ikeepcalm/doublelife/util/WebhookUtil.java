@@ -2,163 +2,359 @@ package dev.ua.ikeepcalm.doublelife.util;
 
 import dev.ua.ikeepcalm.doublelife.DoubleLife;
 import dev.ua.ikeepcalm.doublelife.domain.model.source.DoubleLifeMode;
-import dev.ua.ikeepcalm.doublelife.domain.model.SessionData;
-import org.bukkit.Bukkit;
+import dev.ua.ikeepcalm.doublelife.domain.model.SessionSnapshot;
+import lombok.Getter;
 
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
-import java.net.HttpURLConnection;
-import java.net.URL;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 public class WebhookUtil {
 
+    private static final String SPOOL_FOLDER = "spool";
+    private static final String JSON_CONTENT_TYPE = "application/json";
+    // Room for the multipart framing and payload_json next to the attachment
+    private static final long MULTIPART_OVERHEAD_BYTES = 16 * 1024;
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+    // Output the deflater may still hold back when a compressed part is measured, plus the gzip header and trailer
+    private static final long DEFLATE_SLACK_BYTES = 64 * 1024;
+
     private final DoubleLife plugin;
+    private final WebhookClient client;
+    @Getter
+    private final WebhookSpool spool;
+    @Getter
+    private final WebhookDigest digest;
 
     public WebhookUtil(DoubleLife plugin) {
         this.plugin = plugin;
+        this.client = new WebhookClient(plugin.getLogger());
+        this.spool = new WebhookSpool(plugin.getLogger(), client, plugin.getDataFolder().toPath().resolve(SPOOL_FOLDER),
+                this::resolveEndpoint);
+        this.digest = new WebhookDigest(plugin, spool);
+    }
+
+    /**
+     * Persists the webhooks still being queued and stops delivery; the spool resumes on the next start
+     */
+    public void shutdown() {
+        digest.shutdown();
+        spool.shutdown();
+        client.shutdown();
+    }
+
+    /**
+     * Current URL and headers of a spool target, read from the config each time an entry is sent
+     */
+    private WebhookSpool.Endpoint resolveEndpoint(WebhookSpool.Target target) {
+        String url = target == WebhookSpool.Target.DISCORD
+                ? plugin.getPluginConfig().getDiscordWebhookUrl()
+                : plugin.getPluginConfig().getCallbackUrl();
+        if (url.isEmpty()) {
+            throw new IllegalArgumentException("no " + target.name().toLowerCase(Locale.ROOT) + " URL is configured");
+        }
+        Map<String, String> headers = target == WebhookSpool.Target.CALLBACK
+                ? plugin.getPluginConfig().getCallbackHeaders()
+                : Map.of();
+        return new WebhookSpool.Endpoint(URI.create(url), headers);
     }
 
-    public void sendLog(String playerName, String logContent, SessionData session) {
+    public void sendLog(String playerName, File logFile, SessionSnapshot session) {
         if (plugin.getPluginConfig().isDiscordWebhookEnabled()) {
-            sendDiscordWebhook(playerName, logContent, session);
+            if (plugin.getPluginConfig().isDiscordDigestEnabled()) {
+                digestSessionEnd(playerName, session);
+            } else {
+                sendDiscordWebhook(playerName, logFile, session);
+            }
         }
 
         if (plugin.getPluginConfig().isCallbackEnabled()) {
-            sendHttpCallback(playerName, logContent);
+            sendHttpCallback(playerName, logFile);
         }
     }
 
     public void sendTurboModeActivation(String playerName) {
         if (plugin.getPluginConfig().isDiscordWebhookEnabled()) {
-            sendTurboActivationWebhook(playerName);
+            if (plugin.getPluginConfig().isDiscordDigestEnabled() && !plugin.getPluginConfig().isDiscordDigestTurboImmediate()) {
+                digest.add(new WebhookDigest.Embed("🚀 Turbo Mode Activated - " + playerName,
+                        "**" + playerName + "** has activated Turbo Double Life mode with full administrative permissions.",
+                        16711680, Instant.now().toString(), "Session summary will follow when ended"),
+                        plugin.getPluginConfig().isDiscordTurboMention());
+            } else {
+                sendTurboActivationWebhook(playerName);
+            }
         }
     }
 
-    private void sendDiscordWebhook(String playerName, String logContent, SessionData session) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                String webhookUrl = plugin.getPluginConfig().getDiscordWebhookUrl();
-                if (webhookUrl.isEmpty()) return;
+    private void sendDiscordWebhook(String playerName, File logFile, SessionSnapshot session) {
+        try {
+            String webhookUrl = plugin.getPluginConfig().getDiscordWebhookUrl();
+            if (webhookUrl.isEmpty()) return;
 
-                String format = plugin.getPluginConfig().getDiscordWebhookFormat();
-                String content = formatForDiscord(playerName, logContent, format, session);
+            String format = plugin.getPluginConfig().getDiscordWebhookFormat();
+            boolean mention = plugin.getPluginConfig().isDiscordTurboMention();
 
-                URL url = new URL(webhookUrl);
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("POST");
-                conn.setRequestProperty("Content-Type", "application/json");
-                conn.setDoOutput(true);
+            if (!format.equalsIgnoreCase("markdown") && logFile != null) {
+                sendDiscordLogFile(playerName, logFile, session, mention);
+                return;
+            }
 
-                try (OutputStream os = conn.getOutputStream()) {
-                    byte[] input = content.getBytes(StandardCharsets.UTF_8);
-                    os.write(input, 0, input.length);
-                }
+            spool.enqueue(new WebhookSpool.Request("Discord webhook", WebhookSpool.Target.DISCORD, "POST", JSON_CONTENT_TYPE), out -> {
+                JsonStreamWriter json = new JsonStreamWriter(out);
+                writeDiscordSummary(json, playerName, session, mention);
+                json.flush();
+            });
 
-                int responseCode = conn.getResponseCode();
-                if (responseCode == 204) {
-                    plugin.getLogger().info("Discord webhook sent successfully");
-                } else {
-                    plugin.getLogger().warning("Discord webhook failed: " + responseCode);
-                }
+        } catch (Exception e) {
+            plugin.getLogger().severe("Error sending Discord webhook: " + e.getMessage());
+        }
+    }
 
-            } catch (Exception e) {
-                plugin.getLogger().severe("Error sending Discord webhook: " + e.getMessage());
-            }
-        });
+    /**
+     * Digest mode: a session end becomes one embed built from the activity counts; the full log stays on disk
+     */
+    private void digestSessionEnd(String playerName, SessionSnapshot session) {
+        boolean turbo = session.getMode() == DoubleLifeMode.TURBO;
+        String modeEmoji = turbo ? "🚀" : "⚡";
+        String summary = new LogWriter(plugin, session).generateActivitySummary();
+
+        digest.add(new WebhookDigest.Embed(modeEmoji + " " + session.getMode().getDisplayName() + " Session Ended - " + playerName,
+                        summary, turbo ? 16711680 : 255, session.getEndTime().toString(),
+                        "Activities: " + session.getActivityCount() + " | Duration: " + formatSessionDuration(session)),
+                turbo && plugin.getPluginConfig().isDiscordTurboMention());
     }
 
-    private void sendHttpCallback(String playerName, String logContent) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                String callbackUrl = plugin.getPluginConfig().getCallbackUrl();
-                if (callbackUrl.isEmpty()) return;
+    private void sendHttpCallback(String playerName, File logFile) {
+        try {
+            String callbackUrl = plugin.getPluginConfig().getCallbackUrl();
+            if (callbackUrl.isEmpty()) return;
+
+            long timestamp = System.currentTimeMillis();
+            spool.enqueue(new WebhookSpool.Request("HTTP callback", WebhookSpool.Target.CALLBACK,
+                            plugin.getPluginConfig().getCallbackMethod(), JSON_CONTENT_TYPE), out -> {
+                JsonStreamWriter json = new JsonStreamWriter(out);
+                json.beginObject()
+                        .name("player").value(playerName)
+                        .name("timestamp").value(timestamp)
+                        .name("log");
+                writeLog(json, logFile);
+                json.endObject().flush();
+            });
+
+        } catch (Exception e) {
+            plugin.getLogger().severe("Error sending HTTP callback: " + e.getMessage());
+        }
+    }
 
-                URL url = new URL(callbackUrl);
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod(plugin.getPluginConfig().getCallbackMethod());
-                conn.setRequestProperty("Content-Type", "application/json");
+    /**
+     * Streams the log file into the current JSON string value, so it is never held in memory as a whole
+     */
+    private void writeLog(JsonStreamWriter json, File logFile) throws IOException {
+        if (logFile == null) {
+            json.value("");
+            return;
+        }
+        try (Reader reader = Files.newBufferedReader(logFile.toPath(), StandardCharsets.UTF_8)) {
+            json.value(reader);
+        }
+    }
 
-                String authHeader = plugin.getConfig().getString("webhook.callback.headers.Authorization", "");
-                if (!authHeader.isEmpty()) {
-                    conn.setRequestProperty("Authorization", authHeader);
-                }
+    private void writeDiscordSummary(JsonStreamWriter json, String playerName, SessionSnapshot session, boolean mention) throws IOException {
+        // Use smart Discord formatting with activity summary
+        String discordContent = new LogWriter(plugin, session).formatLogForDiscord(1800); // Leave room for JSON structure
 
-                conn.setDoOutput(true);
+        // Ensure proper code block closure
+        if (discordContent.contains("```") && !discordContent.trim().endsWith("```")) {
+            discordContent = ensureCodeBlockClosure(discordContent);
+        }
 
-                String jsonPayload = createJsonPayload(playerName, logContent);
+        // Choose color and content based on mode
+        int embedColor = session.getMode() == DoubleLifeMode.TURBO ? 16711680 : 255; // Red for Turbo, Blue for Default
+        String modeEmoji = session.getMode() == DoubleLifeMode.TURBO ? "🚀" : "⚡";
+        String attentionLevel = (session.getMode() == DoubleLifeMode.TURBO && mention) ? "@here " : "";
+
+        json.beginObject()
+                .name("content").value(attentionLevel + modeEmoji + " **Double Life Session Ended**")
+                .name("embeds").beginArray().beginObject()
+                .name("title").value(session.getMode().getDisplayName() + " Session - " + playerName)
+                .name("description").value(discordContent)
+                .name("color").value(embedColor)
+                .name("timestamp").value(session.getEndTime().toString())
+                .name("footer").beginObject()
+                .name("text").value("Activities: " + session.getActivityCount() + " | Duration: " + formatSessionDuration(session))
+                .endObject()
+                .endObject().endArray()
+                .endObject();
+    }
 
-                try (OutputStream os = conn.getOutputStream()) {
-                    byte[] input = jsonPayload.getBytes(StandardCharsets.UTF_8);
-                    os.write(input, 0, input.length);
+    /**
+     * Uploads the log as a real attachment, streamed from disk. Logs above the compression threshold are gzipped,
+     * and logs too large for one attachment are split on line boundaries across several messages; for gzipped logs the
+     * attachment limit applies to the compressed size of each part.
+     */
+    private void sendDiscordLogFile(String playerName, File logFile, SessionSnapshot session, boolean mention) throws IOException {
+        // File attachment format
+        String attentionLevel = (session.getMode() == DoubleLifeMode.TURBO && mention) ? "@here " : "";
+        String modeEmoji = session.getMode() == DoubleLifeMode.TURBO ? "🚀" : "⚡";
+
+        boolean compress = logFile.length() > plugin.getPluginConfig().getDiscordCompressThresholdBytes();
+        long maxPart = plugin.getPluginConfig().getDiscordAttachmentLimitBytes() - MULTIPART_OVERHEAD_BYTES;
+        List<Long> offsets = compress ? splitCompressedOffsets(logFile.toPath(), maxPart) : splitOffsets(logFile.toPath(), maxPart);
+        int parts = offsets.size() - 1;
+
+        for (int part = 1; part <= parts; part++) {
+            long start = offsets.get(part - 1);
+            long end = offsets.get(part);
+            String partSuffix = parts > 1 ? " (part " + part + "/" + parts + ")" : "";
+            String fileName = playerName + "-" + session.getMode().name().toLowerCase() + "-session"
+                    + (parts > 1 ? "-" + part : "") + (compress ? ".log.gz" : ".log");
+            String boundary = MultipartWriter.newBoundary();
+
+            spool.enqueue(new WebhookSpool.Request("Discord log upload" + partSuffix, WebhookSpool.Target.DISCORD, "POST",
+                    MultipartWriter.contentType(boundary)), out -> {
+                MultipartWriter multipart = new MultipartWriter(out, boundary);
+                multipart.field("payload_json", "application/json", partOut -> {
+                    JsonStreamWriter json = new JsonStreamWriter(partOut);
+                    json.beginObject()
+                            .name("content").value(attentionLevel + modeEmoji + " Double Life " + session.getMode().getDisplayName()
+                                    + " session log for " + playerName + partSuffix + ":")
+                            .name("attachments").beginArray().beginObject()
+                            .name("id").value(0)
+                            .name("filename").value(fileName)
+                            .endObject().endArray()
+                            .endObject()
+                            .flush();
+                });
+                multipart.file("files[0]", fileName, compress ? "application/gzip" : "text/plain; charset=utf-8", partOut -> {
+                    if (compress) {
+                        try (GZIPOutputStream gzip = new GZIPOutputStream(partOut, COPY_BUFFER_SIZE)) {
+                            copyRange(logFile.toPath(), start, end, gzip);
+                        }
+                    } else {
+                        copyRange(logFile.toPath(), start, end, partOut);
+                    }
+                });
+                multipart.finish();
+            });
+        }
+    }
+
+    /**
+     * Chunk boundaries of at most maxChunk bytes, cut after a newline where possible. Always starts with 0 and ends
+     * with the file length.
+     */
+    private static List<Long> splitOffsets(Path file, long maxChunk) throws IOException {
+        List<Long> offsets = new ArrayList<>();
+        offsets.add(0L);
+
+        long chunkStart = 0;
+        long lastLineEnd = -1;
+        long position = 0;
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(file), COPY_BUFFER_SIZE)) {
+            int b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (position - chunkStart > maxChunk) {
+                    chunkStart = lastLineEnd > chunkStart ? lastLineEnd : position - 1;
+                    offsets.add(chunkStart);
+                }
+                if (b == '\n') {
+                    lastLineEnd = position;
                 }
+            }
+        }
 
-                int responseCode = conn.getResponseCode();
-                plugin.getLogger().info("HTTP callback sent: " + responseCode);
+        if (position > chunkStart || offsets.size() == 1) {
+            offsets.add(position);
+        }
+        return offsets;
+    }
 
-            } catch (Exception e) {
-                plugin.getLogger().severe("Error sending HTTP callback: " + e.getMessage());
+    /**
+     * Like {@link #splitOffsets}, but measures each chunk by its gzipped size. The file is deflated once, restarting
+     * the deflater at every cut just as every part is compressed on its own when it is sent.
+     */
+    private static List<Long> splitCompressedOffsets(Path file, long maxChunk) throws IOException {
+        List<Long> offsets = new ArrayList<>();
+        offsets.add(0L);
+
+        long budget = Math.max(1, maxChunk - DEFLATE_SLACK_BYTES);
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        byte[] input = new byte[COPY_BUFFER_SIZE];
+        byte[] output = new byte[COPY_BUFFER_SIZE];
+        long chunkStart = 0;
+        long position = 0;
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(input)) != -1) {
+                int segmentStart = 0;
+                for (int i = 0; i < read; i++) {
+                    if (input[i] == '\n') {
+                        deflate(deflater, input, segmentStart, i + 1 - segmentStart, output);
+                        segmentStart = i + 1;
+                        if (deflater.getBytesWritten() >= budget) {
+                            chunkStart = position + i + 1;
+                            offsets.add(chunkStart);
+                            deflater.reset();
+                        }
+                    }
+                }
+                deflate(deflater, input, segmentStart, read - segmentStart, output);
+                position += read;
+
+                if (deflater.getBytesWritten() >= budget) {
+                    // A single line that does not fit in one part
+                    chunkStart = position;
+                    offsets.add(chunkStart);
+                    deflater.reset();
+                }
             }
-        });
+        } finally {
+            deflater.end();
+        }
+
+        if (position > chunkStart || offsets.size() == 1) {
+            offsets.add(position);
+        }
+        return offsets;
     }
 
-    private String formatForDiscord(String playerName, String logContent, String format, SessionData session) {
-        LogWriter logWriter = new LogWriter(plugin, session);
-        
-        if (format.equalsIgnoreCase("markdown")) {
-            // Use smart Discord formatting with activity summary
-            String discordContent = logWriter.formatLogForDiscord(1800); // Leave room for JSON structure
-            
-            // Ensure proper code block closure
-            if (discordContent.contains("```") && !discordContent.trim().endsWith("```")) {
-                discordContent = ensureCodeBlockClosure(discordContent);
+    private static void deflate(Deflater deflater, byte[] input, int offset, int length, byte[] output) {
+        if (length == 0) {
+            return;
+        }
+        deflater.setInput(input, offset, length);
+        while (!deflater.needsInput()) {
+            deflater.deflate(output);
+        }
+    }
+
+    private static void copyRange(Path file, long start, long end, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, target);
             }
-            
-            // Choose color and content based on mode
-            int embedColor = session.getMode() == DoubleLifeMode.TURBO ? 16711680 : 255; // Red for Turbo, Blue for Default
-            String modeEmoji = session.getMode() == DoubleLifeMode.TURBO ? "🚀" : "⚡";
-            String attentionLevel = (session.getMode() == DoubleLifeMode.TURBO && plugin.getPluginConfig().isDiscordTurboMention()) ? "@here " : "";
-            
-            return "{"
-                   + "\"content\": \"" + attentionLevel + modeEmoji + " **Double Life Session Ended**\","
-                   + "\"embeds\": [{"
-                   + "\"title\": \"" + session.getMode().getDisplayName() + " Session - " + escapeJson(playerName) + "\","
-                   + "\"description\": \"" + escapeJson(discordContent) + "\","
-                   + "\"color\": " + embedColor + ","
-                   + "\"timestamp\": \"" + session.getEndTime().toString() + "\","
-                   + "\"footer\": {"
-                   + "\"text\": \"Activities: " + session.getActivities().size() + " | Duration: " + formatSessionDuration(session) + "\""
-                   + "}"
-                   + "}]"
-                   + "}";
-        } else {
-            // File attachment format
-            String attentionLevel = (session.getMode() == DoubleLifeMode.TURBO && plugin.getPluginConfig().isDiscordTurboMention()) ? "@here " : "";
-            String modeEmoji = session.getMode() == DoubleLifeMode.TURBO ? "🚀" : "⚡";
-            
-            return "{"
-                   + "\"content\": \"" + attentionLevel + modeEmoji + " Double Life " + session.getMode().getDisplayName() + " session log for " + escapeJson(playerName) + ":\","
-                   + "\"files\": [{"
-                   + "\"name\": \"" + escapeJson(playerName) + "-" + session.getMode().name().toLowerCase() + "-session.log\","
-                   + "\"content\": \"" + escapeJson(logContent) + "\""
-                   + "}]"
-                   + "}";
-        }
-    }
-
-    private String createJsonPayload(String playerName, String logContent) {
-        return "{"
-               + "\"player\": \"" + escapeJson(playerName) + "\","
-               + "\"timestamp\": " + System.currentTimeMillis() + ","
-               + "\"log\": \"" + escapeJson(logContent) + "\""
-               + "}";
-    }
-
-    private String escapeJson(String text) {
-        return text.replace("\\", "\\\\")
-                .replace("\"", "\\\"")
-                .replace("\n", "\\n")
-                .replace("\r", "\\r")
-                .replace("\t", "\\t");
+        }
     }
 
     private String escapeDiscordMarkdown(String text) {
@@ -178,54 +374,40 @@ public class WebhookUtil {
         return content;
     }
 
-    private String formatSessionDuration(SessionData session) {
+    private String formatSessionDuration(SessionSnapshot session) {
         long minutes = session.getDuration().toMinutes();
         long seconds = session.getDuration().getSeconds() % 60;
         return String.format("%dm %ds", minutes, seconds);
     }
 
     private void sendTurboActivationWebhook(String playerName) {
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
-            try {
-                String webhookUrl = plugin.getPluginConfig().getDiscordWebhookUrl();
-                if (webhookUrl.isEmpty()) return;
-
-                // Create immediate high-priority notification for turbo mode activation
-                String attentionLevel = plugin.getPluginConfig().isDiscordTurboMention() ? "@here " : "";
-                String content = "{"
-                        + "\"content\": \"" + attentionLevel + "🚀 **TURBO MODE ACTIVATED** 🚀\","
-                        + "\"embeds\": [{"
-                        + "\"title\": \"⚠️ High Priority Alert\","
-                        + "\"description\": \"**" + escapeJson(playerName) + "** has activated Turbo Double Life mode with full administrative permissions.\\n\\n🔒 **Enhanced monitoring is now active**\","
-                        + "\"color\": 16711680," // Red color for high priority
-                        + "\"timestamp\": \"" + java.time.Instant.now().toString() + "\","
-                        + "\"footer\": {"
-                        + "\"text\": \"Immediate alert - Session log will follow when ended\""
-                        + "}"
-                        + "}]"
-                        + "}";
-
-                URL url = new URL(webhookUrl);
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setRequestMethod("POST");
-                conn.setRequestProperty("Content-Type", "application/json");
-                conn.setDoOutput(true);
-
-                try (OutputStream os = conn.getOutputStream()) {
-                    byte[] input = content.getBytes(StandardCharsets.UTF_8);
-                    os.write(input, 0, input.length);
-                }
-
-                int responseCode = conn.getResponseCode();
-                if (responseCode == 204) {
-                    plugin.getLogger().info("Turbo mode activation webhook sent successfully");
-                } else {
-                    plugin.getLogger().warning("Turbo mode activation webhook failed: " + responseCode);
-                }
-
-            } catch (Exception e) {
-                plugin.getLogger().severe("Error sending turbo activation webhook: " + e.getMessage());
-            }
-        });
+        try {
+            String webhookUrl = plugin.getPluginConfig().getDiscordWebhookUrl();
+            if (webhookUrl.isEmpty()) return;
+
+            // Create immediate high-priority notification for turbo mode activation
+            String attentionLevel = plugin.getPluginConfig().isDiscordTurboMention() ? "@here " : "";
+            String timestamp = Instant.now().toString();
+
+            spool.enqueue(new WebhookSpool.Request("Turbo mode activation webhook", WebhookSpool.Target.DISCORD, "POST", JSON_CONTENT_TYPE), out -> {
+                JsonStreamWriter json = new JsonStreamWriter(out);
+                json.beginObject()
+                        .name("content").value(attentionLevel + "🚀 **TURBO MODE ACTIVATED** 🚀")
+                        .name("embeds").beginArray().beginObject()
+                        .name("title").value("⚠️ High Priority Alert")
+                        .name("description").value("**" + playerName + "** has activated Turbo Double Life mode with full administrative permissions.\n\n🔒 **Enhanced monitoring is now active**")
+                        .name("color").value(16711680) // Red color for high priority
+                        .name("timestamp").value(timestamp)
+                        .name("footer").beginObject()
+                        .name("text").value("Immediate alert - Session log will follow when ended")
+                        .endObject()
+                        .endObject().endArray()
+                        .endObject()
+                        .flush();
+            });
+
+        } catch (Exception e) {
+            plugin.getLogger().severe("Error sending turbo activation webhook: " + e.getMessage());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,210 @@
+package dev.ua.ikeepcalm.doublelife.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Retry and rate limit behaviour of {@link WebhookClient} against a local stub server that answers each request with
+ * the next scripted response for its path.
+ */
+class WebhookClientTest {
+
+    private static final long TIMEOUT_SECONDS = 30;
+    // Allowance for timer and scheduling jitter when checking that a request waited for a delay
+    private static final long TOLERANCE_MILLIS = 150;
+
+    private StubServer server;
+    private WebhookClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = new StubServer();
+        client = new WebhookClient(Logger.getLogger(WebhookClientTest.class.getName()));
+    }
+
+    @AfterEach
+    void tearDown() {
+        client.shutdown();
+        server.close();
+    }
+
+    @Test
+    void retriesRateLimitedRequestAfterRetryAfter() throws Exception {
+        server.script("/hook", new Reply(429, Map.of("Retry-After", "1")), Reply.OK);
+
+        HttpResponse<String> response = send("/hook");
+
+        assertEquals(200, response.statusCode());
+        List<Long> hits = server.hits("/hook");
+        assertEquals(2, hits.size());
+        assertWaited(hits.get(0), hits.get(1), 1000);
+        // The server's delay replaces the bucket's own two second window
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(hits.get(1) - hits.get(0)) < 2000 - TOLERANCE_MILLIS,
+                "the retry should not wait out the default window");
+    }
+
+    @Test
+    void globalRateLimitPausesOtherRoutes() throws Exception {
+        server.script("/first", new Reply(429, Map.of("Retry-After", "1", "X-RateLimit-Global", "true")), Reply.OK);
+        server.script("/second", Reply.OK);
+
+        var first = client.send(request("/first"));
+        server.awaitHits("/first", 1);
+        // Give the client a moment to process the 429 before the second route is used
+        Thread.sleep(200);
+        HttpResponse<String> second = client.send(request("/second")).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+
+        assertEquals(200, first.get(TIMEOUT_SECONDS, TimeUnit.SECONDS).statusCode());
+        assertEquals(200, second.statusCode());
+        assertWaited(server.hits("/first").get(0), server.hits("/second").get(0), 1000);
+    }
+
+    @Test
+    void retriesServerErrorsWithBackoffAndGivesUp() throws Exception {
+        Reply unavailable = new Reply(503, Map.of());
+        server.script("/hook", unavailable, unavailable, unavailable, unavailable, unavailable, Reply.OK);
+
+        HttpResponse<String> response = send("/hook");
+
+        assertEquals(503, response.statusCode());
+        assertEquals(5, server.hits("/hook").size());
+    }
+
+    @Test
+    void recoversWhenServerErrorClears() throws Exception {
+        server.script("/hook", new Reply(500, Map.of()), new Reply(502, Map.of()), Reply.OK);
+
+        HttpResponse<String> response = send("/hook");
+
+        assertEquals(200, response.statusCode());
+        assertEquals(3, server.hits("/hook").size());
+    }
+
+    @Test
+    void routeBucketFollowsRateLimitHeaders() throws Exception {
+        Reply exhausted = new Reply(200, Map.of(
+                "X-RateLimit-Limit", "1",
+                "X-RateLimit-Remaining", "0",
+                "X-RateLimit-Reset-After", "1"));
+        server.script("/hook", exhausted, Reply.OK);
+        server.script("/other", Reply.OK);
+
+        assertEquals(200, send("/hook").statusCode());
+        long exhaustedAt = server.hits("/hook").get(0);
+
+        // Another route has its own bucket and goes out right away
+        assertEquals(200, send("/other").statusCode());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(server.hits("/other").get(0) - exhaustedAt) < 1000 - TOLERANCE_MILLIS,
+                "an unrelated route should not wait for the exhausted bucket");
+
+        assertEquals(200, send("/hook").statusCode());
+        assertWaited(exhaustedAt, server.hits("/hook").get(1), 1000);
+    }
+
+    private HttpResponse<String> send(String path) throws Exception {
+        return client.send(request(path)).get(TIMEOUT_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private HttpRequest request(String path) {
+        return client.request(server.uri(path))
+                .POST(HttpRequest.BodyPublishers.ofString("{}"))
+                .header("Content-Type", "application/json")
+                .build();
+    }
+
+    private static void assertWaited(long fromNanos, long toNanos, long expectedMillis) {
+        long waited = TimeUnit.NANOSECONDS.toMillis(toNanos - fromNanos);
+        assertTrue(waited >= expectedMillis - TOLERANCE_MILLIS,
+                "expected a wait of about " + expectedMillis + "ms, but the next request came after " + waited + "ms");
+    }
+
+    private record Reply(int status, Map<String, String> headers) {
+
+        static final Reply OK = new Reply(200, Map.of());
+    }
+
+    /**
+     * Answers each path with its scripted replies in order, repeating the last one, and records when each request
+     * arrived
+     */
+    private static final class StubServer implements AutoCloseable {
+
+        private final HttpServer server;
+        private final Map<String, Deque<Reply>> scripts = new ConcurrentHashMap<>();
+        private final Map<String, List<Long>> hits = new ConcurrentHashMap<>();
+
+        StubServer() throws IOException {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+            server.createContext("/", this::handle);
+            server.start();
+        }
+
+        void script(String path, Reply... replies) {
+            scripts.put(path, new ArrayDeque<>(List.of(replies)));
+        }
+
+        URI uri(String path) {
+            return URI.create("http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + path);
+        }
+
+        List<Long> hits(String path) {
+            return new ArrayList<>(hits.getOrDefault(path, List.of()));
+        }
+
+        void awaitHits(String path, int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(TIMEOUT_SECONDS);
+            while (hits(path).size() < count) {
+                assertTrue(System.nanoTime() < deadline, "timed out waiting for " + path);
+                Thread.sleep(10);
+            }
+        }
+
+        @Override
+        public void close() {
+            server.stop(0);
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            String path = exchange.getRequestURI().getPath();
+            hits.computeIfAbsent(path, key -> new CopyOnWriteArrayList<>()).add(System.nanoTime());
+            exchange.getRequestBody().readAllBytes();
+
+            Reply reply;
+            Deque<Reply> script = scripts.get(path);
+            synchronized (this) {
+                reply = script == null ? new Reply(404, Map.of()) : script.size() > 1 ? script.poll() : script.peek();
+            }
+
+            byte[] body = ("{\"status\":" + reply.status() + "}").getBytes(StandardCharsets.UTF_8);
+            reply.headers().forEach((name, value) -> exchange.getResponseHeaders().add(name, value));
+            exchange.sendResponseHeaders(reply.status(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+}